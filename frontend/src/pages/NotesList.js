@@ -115,11 +115,7 @@ const NotesList = () => {
               <Card className="note-card h-100">
                 <Card.Body>
                   <Card.Title>{note.title}</Card.Title>
-                  <Card.Text>
-                    {note.content.length > 100
-                      ? `${note.content.substring(0, 100)}...`
-                      : note.content}
-                  </Card.Text>
+                  <Card.Text>{note.snippet}</Card.Text>
                 </Card.Body>
                 <Card.Footer className="bg-white">
                   <small className="text-muted">
@@ -19,6 +19,10 @@ class NoteService {
     return axios.put(`${API_BASE_URL}/${noteId}`, note);
   }
 
+  patchNote(noteId, changes) {
+    return axios.patch(`${API_BASE_URL}/${noteId}`, changes);
+  }
+
   deleteNote(noteId) {
     return axios.delete(`${API_BASE_URL}/${noteId}`);
   }
@@ -0,0 +1,149 @@
+#!/usr/bin/env bash
+# Cold-start benchmark: time from JVM launch to the first successful note request, to the end of
+# the startup indexing and cache warm-up ("Indexed N notes" in the log), and resident memory once
+# ready, for the default startup and the fast-startup profile with AOT and CDS.
+#
+#   scripts/startup-benchmark.sh [runs]
+#   NOTES=1000000 scripts/startup-benchmark.sh [runs]
+#
+# Builds with -Pfast-startup, unpacks the jar (CDS cannot archive classes loaded from nested
+# jars), trains a CDS archive with -Dspring.context.exit=onRefresh, then starts every variant
+# `runs` times (default 5) and prints the medians. With NOTES set, every variant runs with the
+# prod profile against a file database of that many generated notes under target/startup/data,
+# built once and reused; one unmeasured start writes the vector index first, so the measured
+# runs restart the way a deployed instance does. Needs Linux, curl and a free $PORT.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+NOTES="${NOTES:-0}"
+URL="http://localhost:${PORT}/api/notes/page?limit=1"
+MAIN=com.example.aidemo.AiDemoApplication
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="${ROOT}/target/startup"
+APP="${WORK}/app"
+CDS="${WORK}/app.jsa"
+DATA="${WORK}/data"
+
+cd "$ROOT"
+MVN=mvn
+[[ -x ./mvnw ]] && MVN=./mvnw
+"$MVN" -B -q -Pfast-startup -DskipTests package
+JAR="$(ls "$ROOT"/target/ai-demo-*.jar | grep -v '\.original$' | head -n 1)"
+
+# Keep a generated database between runs; it takes minutes to build at 1M notes
+find "$WORK" -mindepth 1 -maxdepth 1 ! -name data -exec rm -rf {} +
+mkdir -p "$APP"
+(cd "$APP" && jar -xf "$JAR")
+CP="${APP}/BOOT-INF/classes:${APP}/BOOT-INF/lib/*"
+
+# With NOTES set, every variant adds the prod profile and points it at the generated database
+PROFILE=""
+DATA_ARGS=()
+DEFAULT_ARGS=()
+if ((NOTES > 0)); then
+    PROFILE="prod,"
+    DB="${DATA}/notes-${NOTES}"
+    if [[ ! -f "${DB}/aidemodb.mv.db" ]]; then
+        echo "Generating ${NOTES} notes in ${DB}" >&2
+        rm -rf "$DB"
+        # Flyway creates the schema; the context exits before the startup indexing
+        java -Dspring.context.exit=onRefresh -cp "$CP" "$MAIN" --spring.profiles.active=prod \
+            --notes.data-dir="$DB" --server.port="$PORT" >"${WORK}/generate.log" 2>&1
+        cat >"${WORK}/generate.sql" <<SQL
+INSERT INTO note (id, title, content, created_at, updated_at, version)
+SELECT X,
+       CONCAT('Note ', X, ' ', ARRAY_GET(ARRAY['budget', 'meeting', 'travel', 'recipe', 'project', 'garden', 'invoice', 'reading'], MOD(X, 8) + 1)),
+       CONCAT('Quarterly review item ', MOD(X, 9973), ' about topic ', MOD(X, 101), ' with owner ', MOD(X, 997),
+              ' and follow-up ', MOD(X * 31, 10007), '. ', REPEAT('Details of the plan and open questions. ', 10)),
+       DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00'),
+       DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00'),
+       0
+FROM SYSTEM_RANGE(1, ${NOTES});
+ALTER SEQUENCE note_seq RESTART WITH $((NOTES + 1));
+SQL
+        java -cp "${APP}/BOOT-INF/lib/*" org.h2.tools.RunScript -url "jdbc:h2:file:${DB}/aidemodb" \
+            -user sa -password password -script "${WORK}/generate.sql"
+    fi
+    DATA_ARGS=(--notes.data-dir="$DB")
+    DEFAULT_ARGS=(--spring.profiles.active=prod "${DATA_ARGS[@]}")
+fi
+
+java -XX:ArchiveClassesAtExit="$CDS" -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true \
+    -cp "$CP" "$MAIN" --spring.profiles.active="${PROFILE}fast-startup" "${DATA_ARGS[@]}" \
+    --server.port="$PORT" >"${WORK}/cds-training.log" 2>&1
+if [[ ! -f "$CDS" ]]; then
+    echo "CDS training run did not write ${CDS}, see ${WORK}/cds-training.log" >&2
+    exit 1
+fi
+
+median() {
+    printf '%s\n' "$@" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+# start <name> <command...>: starts the command in the background and waits for the first note
+# request to succeed and then for the startup indexing to finish; sets FIRST and READY in ms
+start() {
+    local name="$1" begin
+    shift
+    begin=$(date +%s%N)
+    "$@" --server.port="$PORT" >"${WORK}/${name}.log" 2>&1 &
+    PID=$!
+    until curl -sf -o /dev/null "$URL"; do
+        alive "$name"
+        sleep 0.01
+    done
+    FIRST=$(( ($(date +%s%N) - begin) / 1000000 ))
+    # The indexes are rebuilt after the server already accepts requests
+    until grep -q "Indexed [0-9]* notes" "${WORK}/${name}.log"; do
+        alive "$name"
+        sleep 0.01
+    done
+    READY=$(( ($(date +%s%N) - begin) / 1000000 ))
+}
+
+alive() {
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "$1: application exited, see ${WORK}/$1.log" >&2
+        exit 1
+    fi
+}
+
+stop() {
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+}
+
+# measure <name> <command...>: starts the command RUNS times and reports the medians
+measure() {
+    local name="$1"
+    shift
+    local first=() ready=() rss=()
+    for ((i = 1; i <= RUNS; i++)); do
+        start "$name" "$@"
+        first+=("$FIRST")
+        ready+=("$READY")
+        rss+=($(( $(ps -o rss= -p "$PID") / 1024 )))
+        stop
+    done
+    printf '%-18s %8s ms %8s ms %8s MB\n' "$name" "$(median "${first[@]}")" "$(median "${ready[@]}")" "$(median "${rss[@]}")"
+}
+
+if ((NOTES > 0)); then
+    # Embeds every note once and saves the vector index, like the first start of a deployment;
+    # embedding runs in the background after startup, so wait for it before stopping
+    start vector-index java -jar "$JAR" "${DEFAULT_ARGS[@]}"
+    until grep -q "Vector index is up to date" "${WORK}/vector-index.log"; do
+        alive vector-index
+        sleep 0.1
+    done
+    stop
+fi
+
+printf '%-18s %11s %11s %11s\n' "variant" "first req" "ready" "rss"
+measure default      java -jar "$JAR" "${DEFAULT_ARGS[@]}"
+measure lazy         java -cp "$CP" "$MAIN" --spring.profiles.active="${PROFILE}fast-startup" "${DATA_ARGS[@]}"
+measure lazy-aot     java -Dspring.aot.enabled=true -cp "$CP" "$MAIN" \
+    --spring.profiles.active="${PROFILE}fast-startup" "${DATA_ARGS[@]}"
+measure lazy-aot-cds java -XX:SharedArchiveFile="$CDS" -Dspring.aot.enabled=true -cp "$CP" "$MAIN" \
+    --spring.profiles.active="${PROFILE}fast-startup" "${DATA_ARGS[@]}"
@@ -0,0 +1,97 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.service.AICircuitBreaker;
+import com.example.aidemo.service.AIConcurrencyLimiter;
+import com.example.aidemo.service.AIMetrics;
+import com.example.aidemo.service.AIMicroBatcher;
+import com.example.aidemo.service.AIResilience;
+import com.example.aidemo.service.AIResponseCache;
+import com.example.aidemo.service.AIService;
+import com.example.aidemo.service.AnthropicAsyncClient;
+import com.example.aidemo.service.MapReduceSummarizer;
+import com.example.aidemo.service.PromptBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.ai.bedrock.anthropic.AnthropicChatModel;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prompt/response path of {@link AIService} against a stub model with a fixed latency.
+ * Run with several threads to see the effect of caching and in-flight coalescing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class AIServiceBenchmark {
+
+    @Param({"0", "20"})
+    public long modelLatencyMillis;
+
+    @Param({"0", "1000"})
+    public int cacheSize;
+
+    private AIService aiService;
+    private String[] inputs;
+
+    @Setup
+    public void setUp() {
+        // Completes after the latency without holding a thread, like the non-blocking Bedrock client
+        AnthropicAsyncClient client = mock(AnthropicAsyncClient.class);
+        AnthropicAsyncClient.Completion completion =
+                new AnthropicAsyncClient.Completion("A concise summary of the text.", "end_turn", null, null);
+        when(client.complete(any(String.class))).thenAnswer(invocation -> CompletableFuture.supplyAsync(() -> completion,
+                CompletableFuture.delayedExecutor(modelLatencyMillis, TimeUnit.MILLISECONDS)));
+
+        AIResponseCache cache = new AIResponseCache(cacheSize, Duration.ofMinutes(10), Duration.ofHours(1), "stub", "0.7", "500");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        aiService = new AIService(mock(AnthropicChatModel.class), client, cache, new AIMetrics(registry),
+                new MapReduceSummarizer(executor, 2000, 8, 100_000),
+                new AIConcurrencyLimiter(registry, 1024, 1024, Duration.ofMinutes(1)),
+                new PromptBudget(100_000, 500, 2000, 500, 4000, 4000),
+                new AIMicroBatcher(registry, false, Duration.ofMillis(5), 8, 250),
+                new AIResilience(registry,
+                        new AICircuitBreaker(registry, 20, 10, 0.5, Duration.ofSeconds(30)), 1,
+                        Duration.ofMillis(200), Duration.ofSeconds(2), false, Duration.ofMillis(200),
+                        Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)));
+
+        Random random = new Random(42);
+        inputs = new String[128];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = NoteCorpus.words(random, 80);
+        }
+    }
+
+    @Benchmark
+    public String generateSummary(ThreadCursor cursor) {
+        return aiService.generateSummary(inputs[cursor.next() & (inputs.length - 1)]);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+        private int position = new Random().nextInt(1024);
+
+        int next() {
+            return position++;
+        }
+    }
+}
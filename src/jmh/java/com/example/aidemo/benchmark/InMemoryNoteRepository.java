@@ -0,0 +1,86 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.model.Note;
+import com.example.aidemo.repository.NoteRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Map-backed {@link NoteRepository} so service benchmarks measure service code rather than JDBC.
+ * Only the methods the services call are implemented.
+ */
+final class InMemoryNoteRepository {
+
+    private InMemoryNoteRepository() {
+    }
+
+    static NoteRepository create() {
+        Map<Long, Note> notes = new ConcurrentHashMap<>();
+        AtomicLong sequence = new AtomicLong();
+
+        return (NoteRepository) Proxy.newProxyInstance(
+                NoteRepository.class.getClassLoader(),
+                new Class<?>[]{NoteRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        Note note = (Note) args[0];
+                        if (note.getId() == null) {
+                            note.setId(sequence.incrementAndGet());
+                        }
+                        notes.put(note.getId(), note);
+                        yield note;
+                    }
+                    case "findById" -> Optional.ofNullable(notes.get((Long) args[0]));
+                    case "findAllById" -> {
+                        List<Note> found = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            Note note = notes.get((Long) id);
+                            if (note != null) {
+                                found.add(note);
+                            }
+                        }
+                        yield found;
+                    }
+                    case "findAll" -> new ArrayList<>(notes.values());
+                    case "count" -> (long) notes.size();
+                    case "delete" -> {
+                        notes.remove(((Note) args[0]).getId());
+                        yield null;
+                    }
+                    case "existsById" -> notes.containsKey((Long) args[0]);
+                    case "updateNote", "patchNote" -> {
+                        Note note = notes.get((Long) args[0]);
+                        Long version = (Long) args[4];
+                        if (note == null || (version != null && !version.equals(note.getVersion()))) {
+                            yield 0;
+                        }
+                        boolean patch = method.getName().equals("patchNote");
+                        if (!patch || args[1] != null) {
+                            note.setTitle((String) args[1]);
+                        }
+                        if (!patch || args[2] != null) {
+                            note.setContent((String) args[2]);
+                        }
+                        note.setUpdatedAt((Date) args[3]);
+                        note.setVersion(note.getVersion() == null ? 1 : note.getVersion() + 1);
+                        yield 1;
+                    }
+                    case "deleteNoteById" -> notes.remove((Long) args[0]) != null ? 1 : 0;
+                    case "deleteById" -> {
+                        notes.remove((Long) args[0]);
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryNoteRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
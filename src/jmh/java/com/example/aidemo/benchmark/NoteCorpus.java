@@ -0,0 +1,50 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.model.Note;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic notes drawn from a fixed vocabulary.
+ */
+final class NoteCorpus {
+
+    static final String[] VOCABULARY = {
+            "budget", "meeting", "project", "deadline", "design", "review", "customer", "release",
+            "roadmap", "hiring", "invoice", "travel", "research", "prototype", "feedback", "launch",
+            "quarterly", "planning", "security", "database", "migration", "latency", "summary", "ideas",
+            "marketing", "sales", "support", "training", "workshop", "retro", "sprint", "backlog"
+    };
+
+    private NoteCorpus() {
+    }
+
+    static List<Note> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<Note> notes = new ArrayList<>(size);
+        Date now = new Date();
+        for (int i = 0; i < size; i++) {
+            notes.add(Note.builder()
+                    .title(words(random, 4))
+                    .content(words(random, 60))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return notes;
+    }
+
+    static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+}
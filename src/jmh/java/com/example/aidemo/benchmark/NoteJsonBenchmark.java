@@ -0,0 +1,56 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.model.Note;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int listSize;
+
+    private ObjectWriter writer;
+    private ObjectWriter itemWriter;
+    private List<Note> notes;
+    private List<NoteListItem> items;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<Note>>() { });
+        itemWriter = objectMapper.writerFor(new TypeReference<List<NoteListItem>>() { });
+        notes = NoteCorpus.generate(listSize, 42);
+        long id = 1;
+        for (Note note : notes) {
+            note.setId(id++);
+        }
+        items = notes.stream().map(NoteListItem::of).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeNoteList() throws Exception {
+        return writer.writeValueAsBytes(notes);
+    }
+
+    // The list view payload; compare with serializeNoteList for time and bytes
+    @Benchmark
+    public byte[] serializeListItems() throws Exception {
+        return itemWriter.writeValueAsBytes(items);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.model.Note;
+import com.example.aidemo.repository.NoteRepository;
+import com.example.aidemo.service.HashingNoteEmbedder;
+import com.example.aidemo.service.NoteCache;
+import com.example.aidemo.service.NoteChangeFeed;
+import com.example.aidemo.service.NoteSearchIndex;
+import com.example.aidemo.service.NoteService;
+import com.example.aidemo.service.NoteSummaryWorker;
+import com.example.aidemo.service.NoteVectorIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteServiceBenchmark {
+
+    private static final int BULK_SIZE = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int corpusSize;
+
+    // Shares the indexes and notes of searchService but caches search results, to show the cache's effect
+    private NoteService cachedSearchService;
+    private NoteService searchService;
+    private NoteService writeService;
+    private NoteVectorIndex writeVectors;
+    private List<Note> bulkNotes;
+    private String[] queries;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUpCorpus() throws InterruptedException {
+        NoteVectorIndex vectors = newVectorIndex();
+        NoteRepository repository = InMemoryNoteRepository.create();
+        NoteSearchIndex searchIndex = new NoteSearchIndex();
+        // The queries repeat, so an enabled search cache would turn most searches into cache hits
+        searchService = newService(repository, searchIndex, vectors, 0);
+        cachedSearchService = newService(repository, searchIndex, vectors, 1_000);
+        for (Note note : NoteCorpus.generate(corpusSize, 42)) {
+            searchService.createNote(note);
+        }
+        // Embeddings are added in the background; search only once all of them are in
+        while (vectors.size() < corpusSize) {
+            Thread.sleep(10);
+        }
+
+        Random random = new Random(7);
+        queries = new String[64];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = NoteCorpus.words(random, 1 + i % 3);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpWrites() {
+        writeVectors = newVectorIndex();
+        writeService = newService(InMemoryNoteRepository.create(), new NoteSearchIndex(), writeVectors, 1_000);
+        bulkNotes = NoteCorpus.generate(BULK_SIZE, 99);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownWrites() {
+        writeVectors.shutdown();
+    }
+
+    @Benchmark
+    public Note getNoteById() {
+        return searchService.getNoteById((long) (nextQuery++ % corpusSize) + 1);
+    }
+
+    @Benchmark
+    public List<Note> searchNotes() {
+        String query = queries[nextQuery++ & (queries.length - 1)];
+        return searchService.searchNotes(query);
+    }
+
+    @Benchmark
+    public List<Note> semanticSearch() {
+        String query = queries[nextQuery++ & (queries.length - 1)];
+        return searchService.semanticSearch(query, 10);
+    }
+
+    @Benchmark
+    public List<Note> searchNotesCached() {
+        String query = queries[nextQuery++ & (queries.length - 1)];
+        return cachedSearchService.searchNotes(query);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public void bulkCreateNotes(Blackhole blackhole) {
+        for (Note note : bulkNotes) {
+            note.setId(null);
+            blackhole.consume(writeService.createNote(note));
+        }
+    }
+
+    @Benchmark
+    public Note updateNote() {
+        Note details = bulkNotes.get(nextQuery++ % BULK_SIZE);
+        return searchService.updateNote((long) (nextQuery % corpusSize) + 1, details);
+    }
+
+    private static NoteVectorIndex newVectorIndex() {
+        return new NoteVectorIndex(new HashingNoteEmbedder(256), "", 16, 100, 64, 0.3);
+    }
+
+    private static NoteService newService(NoteRepository repository, NoteSearchIndex searchIndex,
+                                          NoteVectorIndex vectorIndex, int searchCacheSize) {
+        NoteCache noteCache = new NoteCache(new SimpleMeterRegistry(), 10_000, searchCacheSize, Duration.ofMinutes(10), 0);
+        NoteSummaryWorker summaryWorker = new NoteSummaryWorker(null, null, noteCache, false, Duration.ZERO, 1);
+        return new NoteService(repository, searchIndex, vectorIndex, null,
+                summaryWorker, noteCache, mock(NoteChangeFeed.class));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.aidemo.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency and restart cost of the file-backed H2 schema from the prod profile, on a
+ * generated table of {@code rows} notes. The database is built once under
+ * {@code target/note-storage} and reused by later runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteStorageBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final long BASE_TIME = 1_700_000_000_000L;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private String url;
+    private Connection connection;
+    private PreparedStatement firstPage;
+    private PreparedStatement pageAfter;
+    private PreparedStatement titlePrefix;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUpDatabase() throws SQLException {
+        Path directory = Path.of("target", "note-storage");
+        url = "jdbc:h2:file:" + directory.toAbsolutePath().resolve("notes-" + rows) + ";CACHE_SIZE=65536";
+        if (!Files.exists(directory.resolve("notes-" + rows + ".mv.db"))) {
+            Flyway.configure().dataSource(url, "sa", "password").load().migrate();
+            populate();
+        }
+        connection = DriverManager.getConnection(url, "sa", "password");
+        firstPage = connection.prepareStatement(
+                "SELECT * FROM note ORDER BY updated_at DESC, id DESC LIMIT " + PAGE_SIZE);
+        pageAfter = connection.prepareStatement(
+                "SELECT * FROM note WHERE updated_at < ? OR (updated_at = ? AND id < ?) " +
+                        "ORDER BY updated_at DESC, id DESC LIMIT " + PAGE_SIZE);
+        titlePrefix = connection.prepareStatement(
+                "SELECT * FROM note WHERE title_lower LIKE ? ESCAPE '\\' ORDER BY title_lower, id LIMIT 20");
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int firstPage(Blackhole blackhole) throws SQLException {
+        return consume(firstPage, blackhole);
+    }
+
+    @Benchmark
+    public int pageAfter(Blackhole blackhole) throws SQLException {
+        long id = 1 + random.nextInt(rows);
+        Timestamp updatedAt = updatedAt(id);
+        pageAfter.setTimestamp(1, updatedAt);
+        pageAfter.setTimestamp(2, updatedAt);
+        pageAfter.setLong(3, id);
+        return consume(pageAfter, blackhole);
+    }
+
+    @Benchmark
+    public int titlePrefix(Blackhole blackhole) throws SQLException {
+        String prefix = NoteCorpus.VOCABULARY[random.nextInt(NoteCorpus.VOCABULARY.length)].substring(0, 3);
+        titlePrefix.setString(1, prefix + "%");
+        return consume(titlePrefix, blackhole);
+    }
+
+    /**
+     * Opens the database in a fresh session, the way the application does on restart, checks
+     * the migrations and reads the first page. Runs while the trial connection is closed so H2
+     * actually reopens the files. This is only the database's share of a restart; the search
+     * index rebuild and cache warm-up that follow are measured end to end by
+     * {@code NOTES=1000000 scripts/startup-benchmark.sh}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int restartToFirstPage(Blackhole blackhole) throws SQLException {
+        connection.close();
+        try {
+            Flyway.configure().dataSource(url, "sa", "password").load().validate();
+            try (Connection restarted = DriverManager.getConnection(url, "sa", "password");
+                 PreparedStatement statement = restarted.prepareStatement(
+                         "SELECT * FROM note ORDER BY updated_at DESC, id DESC LIMIT " + PAGE_SIZE)) {
+                return consume(statement, blackhole);
+            }
+        } finally {
+            setUpDatabase();
+        }
+    }
+
+    private void populate() throws SQLException {
+        try (Connection setup = DriverManager.getConnection(url, "sa", "password");
+             PreparedStatement insert = setup.prepareStatement(
+                     "INSERT INTO note (id, title, content, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, 0)")) {
+            setup.setAutoCommit(false);
+            Random words = new Random(42);
+            for (long id = 1; id <= rows; id++) {
+                Timestamp updatedAt = updatedAt(id);
+                insert.setLong(1, id);
+                insert.setString(2, NoteCorpus.words(words, 4));
+                insert.setString(3, NoteCorpus.words(words, 60));
+                insert.setTimestamp(4, updatedAt);
+                insert.setTimestamp(5, updatedAt);
+                insert.addBatch();
+                if (id % 1_000 == 0) {
+                    insert.executeBatch();
+                    setup.commit();
+                }
+            }
+            insert.executeBatch();
+            setup.commit();
+        }
+    }
+
+    // Newer ids are more recently updated, like notes written through the application
+    private static Timestamp updatedAt(long id) {
+        return new Timestamp(BASE_TIME + id * 1_000);
+    }
+
+    private static int consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        int count = 0;
+        try (ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                blackhole.consume(results.getLong(1));
+                count++;
+            }
+        }
+        return count;
+    }
+}
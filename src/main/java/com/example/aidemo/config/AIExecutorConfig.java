@@ -0,0 +1,47 @@
+package com.example.aidemo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+public class AIExecutorConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Executor for model calls made off the request thread. Callers bound their own
+     * concurrency, so the pool itself is not capped. Uses a virtual thread per task when
+     * virtual threads are enabled and the runtime supports them (Java 21+).
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService aiExecutor() {
+        if (virtualThreads) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                return executor;
+            }
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "falling back to platform threads", Runtime.version().feature());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ai-worker-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    // Looked up reflectively so the application still compiles and runs on Java 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
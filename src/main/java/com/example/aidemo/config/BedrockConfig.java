@@ -7,8 +7,18 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.Protocol;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClientBuilder;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClientBuilder;
+
+import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class BedrockConfig {
@@ -22,12 +32,70 @@ public class BedrockConfig {
     @Value("${spring.ai.bedrock.aws.secret-key:}")
     private String secretKey;
 
+    @Value("${ai.bedrock.endpoint:}")
+    private String endpointOverride;
+
+    @Value("${ai.bedrock.async.max-concurrency:100}")
+    private int maxConcurrency;
+
+    @Value("${ai.bedrock.async.max-pending-acquires:1000}")
+    private int maxPendingAcquires;
+
+    @Value("${ai.bedrock.async.connection-acquisition-timeout:10s}")
+    private Duration connectionAcquisitionTimeout;
+
+    @Value("${ai.bedrock.async.connection-max-idle-time:60s}")
+    private Duration connectionMaxIdleTime;
+
+    @Value("${ai.bedrock.async.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Value("${ai.bedrock.async.protocol:HTTP1_1}")
+    private Protocol protocol;
+
+    @Value("${ai.bedrock.async.api-call-timeout:2m}")
+    private Duration apiCallTimeout;
+
     @Bean
     public BedrockRuntimeClient bedrockRuntimeClient() {
-        return BedrockRuntimeClient.builder()
+        BedrockRuntimeClientBuilder builder = BedrockRuntimeClient.builder()
                 .region(Region.of(awsRegion))
                 .credentialsProvider(getCredentialsProvider())
-                .build();
+                .overrideConfiguration(this::configureCalls);
+        if (!endpointOverride.isEmpty()) {
+            builder.endpointOverride(URI.create(endpointOverride));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Non-blocking client: in-flight calls hold a pooled connection rather than a thread.
+     */
+    @Bean(destroyMethod = "close")
+    public BedrockRuntimeAsyncClient bedrockRuntimeAsyncClient() {
+        NettyNioAsyncHttpClient.Builder httpClient = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                .maxPendingConnectionAcquires(maxPendingAcquires)
+                .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+                .connectionMaxIdleTime(connectionMaxIdleTime)
+                .tcpKeepAlive(tcpKeepAlive)
+                .protocol(protocol);
+
+        BedrockRuntimeAsyncClientBuilder builder = BedrockRuntimeAsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(getCredentialsProvider())
+                .httpClientBuilder(httpClient)
+                .overrideConfiguration(this::configureCalls);
+        if (!endpointOverride.isEmpty()) {
+            builder.endpointOverride(URI.create(endpointOverride));
+        }
+        return builder.build();
+    }
+
+    // AIResilience is the only retry layer; SDK retries would multiply calls while Bedrock throttles
+    private void configureCalls(ClientOverrideConfiguration.Builder config) {
+        config.apiCallTimeout(apiCallTimeout)
+                .retryPolicy(RetryPolicy.none());
     }
 
     private AwsCredentialsProvider getCredentialsProvider() {
@@ -36,4 +104,4 @@ public class BedrockConfig {
         }
         return DefaultCredentialsProvider.create();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.example.aidemo.config;
+
+import com.example.aidemo.service.BedrockTitanEmbedder;
+import com.example.aidemo.service.HashingNoteEmbedder;
+import com.example.aidemo.service.NoteEmbedder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
+
+@Configuration
+public class EmbeddingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "hashing", matchIfMissing = true)
+    public NoteEmbedder hashingNoteEmbedder(@Value("${ai.embedding.dimensions:256}") int dimensions) {
+        return new HashingNoteEmbedder(dimensions);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "bedrock")
+    public NoteEmbedder bedrockTitanEmbedder(BedrockRuntimeClient bedrockRuntimeClient,
+                                             ObjectMapper objectMapper,
+                                             @Value("${ai.embedding.model:amazon.titan-embed-text-v1}") String model,
+                                             @Value("${ai.embedding.dimensions:1536}") int dimensions) {
+        return new BedrockTitanEmbedder(bedrockRuntimeClient, objectMapper, model, dimensions);
+    }
+}
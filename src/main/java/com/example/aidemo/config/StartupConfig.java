@@ -0,0 +1,26 @@
+package com.example.aidemo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Profile("fast-startup")
+public class StartupConfig {
+
+    /**
+     * The fast-startup profile turns on lazy initialization so the Bedrock clients and Spring AI
+     * models are only built by the first AI request. The data layer is kept eager: a failed
+     * migration or schema validation should stop the pod before it takes traffic.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerDataLayer() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class, FlywayMigrationInitializer.class, EntityManagerFactory.class);
+    }
+}
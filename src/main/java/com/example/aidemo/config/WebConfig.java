@@ -0,0 +1,25 @@
+package com.example.aidemo.config;
+
+import com.example.aidemo.controller.AIRateLimitInterceptor;
+import com.example.aidemo.service.AIRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AIRateLimiter aiRateLimiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AIRateLimitInterceptor(aiRateLimiter))
+                .addPathPatterns("/api/ai/**")
+                // Polling a job is not a model call; only submitting one is admitted. Batches are
+                // charged per item by the controller once the item count is known
+                .excludePathPatterns("/api/ai/cache/**", "/api/ai/jobs/*", "/api/ai/jobs/*/events",
+                        "/api/ai/batch", "/api/ai/batch/stream");
+    }
+}
@@ -1,11 +1,41 @@
 package com.example.aidemo.controller;
 
+import com.example.aidemo.dto.AIBatchRequest;
+import com.example.aidemo.dto.AIBatchResponse;
+import com.example.aidemo.dto.AICacheStats;
+import com.example.aidemo.dto.AIJobRequest;
+import com.example.aidemo.dto.AIJobResponse;
 import com.example.aidemo.dto.AIRequest;
 import com.example.aidemo.dto.AIResponse;
+import com.example.aidemo.model.AIJob;
+import com.example.aidemo.service.AIBatchService;
+import com.example.aidemo.service.AIJobService;
+import com.example.aidemo.service.AIOperation;
+import com.example.aidemo.service.AIOverloadedException;
+import com.example.aidemo.service.AIRateLimiter;
 import com.example.aidemo.service.AIService;
+import com.example.aidemo.service.AIUnavailableException;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -14,28 +44,183 @@ import org.springframework.web.bind.annotation.*;
 public class AIController {
 
     private final AIService aiService;
+    private final AIBatchService aiBatchService;
+    private final AIJobService aiJobService;
+    private final AIRateLimiter aiRateLimiter;
+    @Qualifier("aiExecutor")
+    private final ExecutorService aiExecutor;
+
+    @Value("${ai.stream.timeout:2m}")
+    private Duration streamTimeout;
 
     @PostMapping("/summarize")
-    public ResponseEntity<AIResponse> summarizeText(@RequestBody AIRequest request) {
-        String summary = aiService.generateSummary(request.getText());
-        return ResponseEntity.ok(new AIResponse(summary));
+    public CompletableFuture<ResponseEntity<AIResponse>> summarizeText(@RequestBody AIRequest request) {
+        return aiService.generateSummaryAsync(request.getText())
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/ideas")
-    public ResponseEntity<AIResponse> generateIdeas(@RequestBody AIRequest request) {
-        String ideas = aiService.generateIdeas(request.getText());
-        return ResponseEntity.ok(new AIResponse(ideas));
+    public CompletableFuture<ResponseEntity<AIResponse>> generateIdeas(@RequestBody AIRequest request) {
+        return aiService.generateIdeasAsync(request.getText())
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/improve")
-    public ResponseEntity<AIResponse> improveText(@RequestBody AIRequest request) {
-        String improvedText = aiService.improveText(request.getText());
-        return ResponseEntity.ok(new AIResponse(improvedText));
+    public CompletableFuture<ResponseEntity<AIResponse>> improveText(@RequestBody AIRequest request) {
+        return aiService.improveTextAsync(request.getText())
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/answer")
-    public ResponseEntity<AIResponse> answerQuestion(@RequestBody AIRequest request) {
-        String answer = aiService.answerQuestion(request.getText());
-        return ResponseEntity.ok(new AIResponse(answer));
+    public CompletableFuture<ResponseEntity<AIResponse>> answerQuestion(@RequestBody AIRequest request) {
+        return aiService.answerQuestionAsync(request.getText())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/summarize/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary(@RequestBody AIRequest request) {
+        return stream(AIOperation.SUMMARIZE, request);
+    }
+
+    @PostMapping(value = "/ideas/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamIdeas(@RequestBody AIRequest request) {
+        return stream(AIOperation.IDEAS, request);
+    }
+
+    @PostMapping(value = "/improve/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamImprovedText(@RequestBody AIRequest request) {
+        return stream(AIOperation.IMPROVE, request);
+    }
+
+    @PostMapping(value = "/answer/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnswer(@RequestBody AIRequest request) {
+        return stream(AIOperation.ANSWER, request);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<AIBatchResponse> processBatch(@RequestBody AIBatchRequest request,
+                                                        HttpServletRequest httpRequest) {
+        admitBatch(request, httpRequest);
+        return ResponseEntity.ok(aiBatchService.process(request));
+    }
+
+    @PostMapping(value = "/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBatch(@RequestBody AIBatchRequest request, HttpServletRequest httpRequest) {
+        admitBatch(request, httpRequest);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Future<?> batch = aiExecutor.submit(() -> {
+            try {
+                AIBatchResponse response = aiBatchService.process(request,
+                        progress -> send(emitter, SseEmitter.event().name("progress").data(progress)));
+                send(emitter, SseEmitter.event().name("done").data(response));
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        // Stops scheduling further items once the client has gone away
+        emitter.onTimeout(() -> batch.cancel(true));
+        emitter.onError(e -> batch.cancel(true));
+        return emitter;
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<AIJobResponse> submitJob(@RequestBody AIJobRequest request) {
+        AIJob job = aiJobService.submit(request.getOperation(), request.getText());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/ai/jobs/" + job.getId()))
+                .body(AIJobResponse.of(job));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<AIJobResponse> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(AIJobResponse.of(aiJobService.getJob(id)));
+    }
+
+    /**
+     * Sends the job's current state as a {@code status} event, then a {@code done} event with the
+     * result once it has finished. A client that times out can reconnect or poll.
+     */
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(@PathVariable Long id) {
+        AIJobResponse job = AIJobResponse.of(aiJobService.getJob(id));
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        send(emitter, SseEmitter.event().name("status").data(job));
+        CompletableFuture<AIJobResponse> completion = aiJobService.awaitCompletion(id);
+        completion.whenComplete((finished, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                send(emitter, SseEmitter.event().name("done").data(finished));
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // The client went away
+            }
+        });
+        emitter.onTimeout(() -> completion.cancel(false));
+        emitter.onError(e -> completion.cancel(false));
+        return emitter;
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<AICacheStats> getCacheStats() {
+        return ResponseEntity.ok(aiService.getCacheStats());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(EntityNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @ExceptionHandler(AIOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(AIOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(AIUnavailableException.class)
+    public ResponseEntity<String> handleUnavailable(AIUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    private SseEmitter stream(AIOperation operation, AIRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        // A failed send means the client went away; throwing cancels the upstream model call
+        Disposable subscription = aiService.streamResponse(operation, request.getText()).subscribe(
+                token -> send(emitter, SseEmitter.event().name("token").data(token)),
+                emitter::completeWithError,
+                () -> {
+                    send(emitter, SseEmitter.event().name("done").data(""));
+                    emitter.complete();
+                });
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    // Batches skip the rate-limit interceptor and are charged here, one token per item
+    private void admitBatch(AIBatchRequest request, HttpServletRequest httpRequest) {
+        aiRateLimiter.acquire(httpRequest.getRemoteAddr(), aiBatchService.validate(request));
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
     }
 }
\ No newline at end of file
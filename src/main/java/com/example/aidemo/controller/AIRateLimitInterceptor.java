@@ -0,0 +1,30 @@
+package com.example.aidemo.controller;
+
+import com.example.aidemo.service.AIRateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link AIRateLimiter} before an AI request reaches the controller. Rejections are
+ * thrown as {@link com.example.aidemo.service.AIOverloadedException} and answered with 429 by
+ * {@link AIController}. Clients are identified by remote address; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so that is the original client's address.
+ */
+@RequiredArgsConstructor
+public class AIRateLimitInterceptor implements HandlerInterceptor {
+
+    private final AIRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async and error re-dispatches belong to a request that was already admitted
+        if (request.getDispatcherType() == DispatcherType.REQUEST && !CorsUtils.isPreFlightRequest(request)) {
+            rateLimiter.acquire(request.getRemoteAddr());
+        }
+        return true;
+    }
+}
@@ -1,14 +1,37 @@
 package com.example.aidemo.controller;
 
+import com.example.aidemo.dto.NoteChanges;
+import com.example.aidemo.dto.NoteImportResult;
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.dto.NotePage;
+import com.example.aidemo.dto.NotePatch;
+import com.example.aidemo.dto.NoteSummary;
+import com.example.aidemo.dto.NoteVersion;
 import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChange;
+import com.example.aidemo.service.NoteFormat;
 import com.example.aidemo.service.NoteService;
+import com.example.aidemo.service.NoteTransferService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/notes")
@@ -16,21 +39,98 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000") // For React frontend
 public class NoteController {
 
+    static final int MAX_CHANGES_WAIT_SECONDS = 30;
+
     private final NoteService noteService;
+    private final NoteTransferService noteTransferService;
 
     @GetMapping
-    public ResponseEntity<List<Note>> getAllNotes() {
+    public ResponseEntity<List<NoteListItem>> getAllNotes(ServletWebRequest request) {
+        if (isCollectionNotModified(request)) {
+            return null;
+        }
         return ResponseEntity.ok(noteService.getAllNotes());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<NotePage> getNotesPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int limit,
+                                                 ServletWebRequest request) {
+        if (isCollectionNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(noteService.getNotesPage(cursor, limit));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamNotes() {
+        return exportNotes(NoteFormat.NDJSON.name());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@RequestParam(defaultValue = "ndjson") String format) {
+        NoteFormat noteFormat = NoteFormat.fromName(format);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            noteTransferService.exportNotes(out, noteFormat);
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(noteFormat.getMediaType()).body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/json", "application/x-ndjson", "text/csv"})
+    public ResponseEntity<NoteImportResult> importNotes(HttpServletRequest request) throws IOException {
+        NoteFormat format = NoteFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(noteTransferService.importNotes(request.getInputStream(), format));
+    }
+
+    /**
+     * Changes after the {@code since} cursor. With {@code wait} > 0 the request is held until a
+     * change commits or the wait elapses, without occupying a servlet thread.
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<NoteChanges>> getChanges(@RequestParam(required = false) String since,
+                                                                     @RequestParam(defaultValue = "500") int limit,
+                                                                     @RequestParam(defaultValue = "0") int wait) {
+        Duration timeout = Duration.ofSeconds(Math.max(0, Math.min(wait, MAX_CHANGES_WAIT_SECONDS)));
+        return noteService.awaitChanges(since, limit, timeout)
+                .thenApply(changes -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(changes));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Note> getNoteById(@PathVariable Long id) {
-        return ResponseEntity.ok(noteService.getNoteById(id));
+    public ResponseEntity<Note> getNoteById(@PathVariable Long id, ServletWebRequest request) {
+        // Returning null after checkNotModified sends the 304 without loading the note
+        NoteVersion version = noteService.getNoteVersion(id);
+        if (isNotModified(request, eTag(version), lastModified(version))) {
+            return null;
+        }
+        Note note = noteService.getNoteById(id);
+        return ResponseEntity.ok().eTag(eTag(NoteVersion.of(note))).body(note);
+    }
+
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<NoteSummary> getNoteSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(noteService.getNoteSummary(id));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Note>> searchNotes(@RequestParam String query) {
-        return ResponseEntity.ok(noteService.searchNotes(query));
+    public ResponseEntity<List<NoteListItem>> searchNotes(@RequestParam String query,
+                                                          @RequestParam(defaultValue = "" + NoteService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return ResponseEntity.ok(listItems(noteService.searchNotes(query, limit)));
+    }
+
+    @GetMapping("/by-title")
+    public ResponseEntity<List<NoteListItem>> findByTitlePrefix(@RequestParam String prefix,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(listItems(noteService.findByTitlePrefix(prefix, limit)));
+    }
+
+    @GetMapping("/semantic-search")
+    public ResponseEntity<List<NoteListItem>> semanticSearch(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(listItems(noteService.semanticSearch(q, k)));
     }
 
     @PostMapping
@@ -43,9 +143,60 @@ public class NoteController {
         return ResponseEntity.ok(noteService.updateNote(id, note));
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Note> patchNote(@PathVariable Long id, @RequestBody NotePatch patch) {
+        return ResponseEntity.ok(noteService.patchNote(id, patch));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNote(@PathVariable Long id) {
         noteService.deleteNote(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Search results come from the note cache as full notes; only the list fields are sent
+    private static List<NoteListItem> listItems(List<Note> notes) {
+        return notes.stream().map(NoteListItem::of).toList();
+    }
+
+    // Keyed by the change feed, so the ETag for the same data survives restarts
+    private boolean isCollectionNotModified(ServletWebRequest request) {
+        NoteChange latest = noteService.getLatestChange().orElse(null);
+        String eTag = "W/\"" + (latest == null ? 0 : latest.getId()) + "\"";
+        return isNotModified(request, eTag, latest == null ? -1 : time(latest.getChangedAt()));
+    }
+
+    // no-cache makes browsers revalidate on every poll instead of guessing a freshness lifetime
+    private static boolean isNotModified(ServletWebRequest request, String eTag, long lastModified) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified(eTag, lastModified);
+    }
+
+    private static String eTag(NoteVersion version) {
+        return "W/\"" + version.getId() + "-" + time(version.getUpdatedAt()) + "-" + time(version.getSummarizedAt()) + "\"";
+    }
+
+    private static long lastModified(NoteVersion version) {
+        long lastModified = Math.max(time(version.getUpdatedAt()), time(version.getSummarizedAt()));
+        return lastModified > 0 ? lastModified : -1;
+    }
+
+    private static long time(Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(EntityNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIBatchItemResult {
+    private int index;
+    private Long noteId;
+    private String result;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIBatchProgress {
+    private int completed;
+    private int total;
+    private AIBatchItemResult item;
+}
@@ -0,0 +1,18 @@
+package com.example.aidemo.dto;
+
+import com.example.aidemo.service.AIOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIBatchRequest {
+    private AIOperation operation = AIOperation.SUMMARIZE;
+    private List<Long> noteIds;
+    private List<String> texts;
+    private Integer concurrency;
+}
@@ -0,0 +1,17 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AICacheStats {
+    private long hits;
+    private long misses;
+    private long coalesced;
+    private long evictions;
+    private int size;
+    private double hitRatio;
+}
@@ -0,0 +1,14 @@
+package com.example.aidemo.dto;
+
+import com.example.aidemo.service.AIOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIJobRequest {
+    private AIOperation operation = AIOperation.SUMMARIZE;
+    private String text;
+}
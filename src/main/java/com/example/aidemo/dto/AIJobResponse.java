@@ -0,0 +1,33 @@
+package com.example.aidemo.dto;
+
+import com.example.aidemo.model.AIJob;
+import com.example.aidemo.model.AIJobStatus;
+import com.example.aidemo.service.AIOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A job without its input, which can be large.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIJobResponse {
+    private Long id;
+    private AIOperation operation;
+    private AIJobStatus status;
+    private String result;
+    private String error;
+    private int attempts;
+    private Date createdAt;
+    private Date startedAt;
+    private Date completedAt;
+
+    public static AIJobResponse of(AIJob job) {
+        return new AIJobResponse(job.getId(), job.getOperation(), job.getStatus(), job.getResult(), job.getError(),
+                job.getAttempts(), job.getCreatedAt(), job.getStartedAt(), job.getCompletedAt());
+    }
+}
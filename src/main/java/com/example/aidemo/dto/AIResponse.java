@@ -9,4 +9,16 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AIResponse {
     private String result;
-}
\ No newline at end of file
+    private AIUsage usage;
+    // Served from an expired cached response because the model was unavailable
+    private boolean degraded;
+
+    public AIResponse(String result) {
+        this.result = result;
+    }
+
+    public AIResponse(String result, AIUsage usage) {
+        this.result = result;
+        this.usage = usage;
+    }
+}
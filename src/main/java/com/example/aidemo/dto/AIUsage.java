@@ -0,0 +1,18 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estimated prompt tokens sent to the model for a request, and tokens avoided by compacting or
+ * truncating oversized input and by cache hits.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIUsage {
+    private int promptTokens;
+    private int savedTokens;
+    private boolean truncated;
+}
@@ -0,0 +1,21 @@
+package com.example.aidemo.dto;
+
+import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteChangeEntry {
+    private Long changeId;
+    private Long noteId;
+    private NoteChangeType type;
+    private Date changedAt;
+    // Current state of the note; null for deletes
+    private Note note;
+}
@@ -0,0 +1,17 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteChanges {
+    private List<NoteChangeEntry> changes;
+    // Pass as `since` on the next request
+    private String cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteImportResult {
+    private long imported;
+    private long rejected;
+    private boolean completed;
+    private long elapsedMillis;
+    private List<String> errors;
+}
@@ -0,0 +1,37 @@
+package com.example.aidemo.dto;
+
+import com.example.aidemo.model.Note;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * What list and search views show of a note: the title and the start of the content. The
+ * full note is fetched from {@code GET /api/notes/{id}}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteListItem {
+
+    public static final int SNIPPET_LENGTH = 100;
+
+    private Long id;
+    private String title;
+    // First SNIPPET_LENGTH characters of the content, followed by "..." when there is more
+    private String snippet;
+    private Date updatedAt;
+
+    public static NoteListItem of(Note note) {
+        return new NoteListItem(note.getId(), note.getTitle(), snippet(note.getContent()), note.getUpdatedAt());
+    }
+
+    public static String snippet(String content) {
+        if (content == null || content.length() <= SNIPPET_LENGTH) {
+            return content;
+        }
+        return content.substring(0, SNIPPET_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial note update: null fields are left unchanged. When {@code version} is set the update
+ * only applies if the note is still at that version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotePatch {
+    private String title;
+    private String content;
+    private Long version;
+}
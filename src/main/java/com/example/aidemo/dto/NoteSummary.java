@@ -0,0 +1,18 @@
+package com.example.aidemo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSummary {
+    private Long noteId;
+    private String summary;
+    private Date summarizedAt;
+    // True while the note has changed since the summary was generated and a refresh is pending
+    private boolean stale;
+}
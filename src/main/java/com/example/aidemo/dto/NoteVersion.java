@@ -0,0 +1,25 @@
+package com.example.aidemo.dto;
+
+import com.example.aidemo.model.Note;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * The timestamps that determine a note's representation, used to answer conditional requests
+ * without loading the note itself.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteVersion {
+    private Long id;
+    private Date updatedAt;
+    private Date summarizedAt;
+
+    public static NoteVersion of(Note note) {
+        return new NoteVersion(note.getId(), note.getUpdatedAt(), note.getSummarizedAt());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.aidemo.model;
+
+import com.example.aidemo.service.AIOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Date;
+
+/**
+ * An AI request accepted by {@code POST /api/ai/jobs} and run in the background. The table is
+ * the queue: jobs still queued or running when the application stops are picked up again on
+ * the next start.
+ */
+@Entity
+@Table(name = "ai_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_job_seq")
+    @SequenceGenerator(name = "ai_job_seq", sequenceName = "ai_job_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private AIOperation operation;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private AIJobStatus status;
+
+    @Column(nullable = false, length = 100000)
+    private String input;
+
+    @Column(length = 100000)
+    private String result;
+
+    @Column(length = 1000)
+    private String error;
+
+    // Times the job was started; a job interrupted by a restart is started again
+    @Column(nullable = false)
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date completedAt;
+}
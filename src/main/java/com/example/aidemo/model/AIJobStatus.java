@@ -0,0 +1,12 @@
+package com.example.aidemo.model;
+
+public enum AIJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
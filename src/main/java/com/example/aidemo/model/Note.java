@@ -1,12 +1,16 @@
 package com.example.aidemo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,17 +23,23 @@ import java.util.Date;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Note {
 
+    public static final int MAX_TITLE_LENGTH = 255;
+    public static final int MAX_CONTENT_LENGTH = 1000;
+
+    // A pooled sequence (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_seq")
+    @SequenceGenerator(name = "note_seq", sequenceName = "note_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
+    @Column(length = MAX_TITLE_LENGTH)
     private String title;
 
-    @Column(length = 1000)
+    @Column(length = MAX_CONTENT_LENGTH)
     private String content;
 
     @Temporal(TemporalType.TIMESTAMP)
@@ -37,4 +47,22 @@ public class Note {
 
     @Temporal(TemporalType.TIMESTAMP)
     private Date updatedAt;
+
+    // Incremented by every content update; clients send it back to detect conflicting edits
+    @Version
+    private Long version;
+
+    // Maintained by NoteSummaryWorker; never taken from request bodies
+    @Column(length = 4000)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String summary;
+
+    // SHA-256 of the text the stored summary was generated from
+    @JsonIgnore
+    @Column(length = 64)
+    private String summaryContentHash;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Date summarizedAt;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.aidemo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * One entry of the note change feed. Deletes are kept as tombstones so clients can sync them.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteChange {
+
+    // The id doubles as the feed cursor, so it must increase with every change; pooled blocks are
+    // only safe because a single instance writes the database (see NoteChangeFeed)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_change_seq")
+    @SequenceGenerator(name = "note_change_seq", sequenceName = "note_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long noteId;
+
+    // Plain VARCHAR to match the migration, not a database enum type
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private NoteChangeType type;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date changedAt;
+}
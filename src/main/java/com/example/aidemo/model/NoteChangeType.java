@@ -0,0 +1,7 @@
+package com.example.aidemo.model;
+
+public enum NoteChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,50 @@
+package com.example.aidemo.repository;
+
+import com.example.aidemo.model.AIJob;
+import com.example.aidemo.model.AIJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface AIJobRepository extends JpaRepository<AIJob, Long> {
+
+    @Query("SELECT j.id FROM AIJob j WHERE j.status = :status ORDER BY j.id")
+    List<Long> findIdsByStatus(@Param("status") AIJobStatus status);
+
+    // Succeeds for exactly one worker, so a job is never run twice concurrently
+    @Transactional
+    @Modifying
+    @Query("UPDATE AIJob j SET j.status = :running, j.startedAt = :startedAt, j.attempts = j.attempts + 1 " +
+            "WHERE j.id = :id AND j.status = :queued")
+    int claim(@Param("id") Long id, @Param("queued") AIJobStatus queued, @Param("running") AIJobStatus running,
+              @Param("startedAt") Date startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AIJob j SET j.status = :status, j.result = :result, j.error = :error, " +
+            "j.completedAt = :completedAt WHERE j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") AIJobStatus status, @Param("result") String result,
+               @Param("error") String error, @Param("completedAt") Date completedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AIJob j SET j.status = :queued, j.startedAt = NULL WHERE j.status = :running")
+    int requeueAll(@Param("running") AIJobStatus running, @Param("queued") AIJobStatus queued);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AIJob j SET j.status = :queued, j.startedAt = NULL WHERE j.id = :id")
+    int requeue(@Param("id") Long id, @Param("queued") AIJobStatus queued);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AIJob j WHERE j.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") Date cutoff);
+}
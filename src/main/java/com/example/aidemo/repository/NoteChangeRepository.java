@@ -0,0 +1,23 @@
+package com.example.aidemo.repository;
+
+import com.example.aidemo.model.NoteChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NoteChangeRepository extends JpaRepository<NoteChange, Long> {
+
+    @Query("SELECT c FROM NoteChange c WHERE c.id > :after AND c.id <= :upTo ORDER BY c.id")
+    List<NoteChange> findRange(@Param("after") long after, @Param("upTo") long upTo, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM NoteChange c WHERE c.id <= :upTo")
+    long findLatestId(@Param("upTo") long upTo);
+
+    Optional<NoteChange> findFirstByIdLessThanEqualOrderByIdDesc(long upTo);
+}
@@ -1,15 +1,90 @@
 package com.example.aidemo.repository;
 
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.dto.NoteVersion;
 import com.example.aidemo.model.Note;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
-    
-    List<Note> findByTitleContainingIgnoreCase(String title);
-    
-    List<Note> findByContentContainingIgnoreCase(String content);
-}
\ No newline at end of file
+
+    // List views only need a snippet, so the content is truncated in the query (see NoteListItem.snippet)
+    String LIST_ITEM = "new com.example.aidemo.dto.NoteListItem(n.id, n.title, " +
+            "CASE WHEN LENGTH(n.content) > " + NoteListItem.SNIPPET_LENGTH + " " +
+            "THEN CONCAT(SUBSTRING(n.content, 1, " + NoteListItem.SNIPPET_LENGTH + "), '...') " +
+            "ELSE n.content END, n.updatedAt)";
+
+    @Query("SELECT " + LIST_ITEM + " FROM Note n ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NoteListItem> findAllItems();
+
+    @Query("SELECT " + LIST_ITEM + " FROM Note n ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NoteListItem> findFirstPage(Pageable pageable);
+
+    @Query("SELECT " + LIST_ITEM + " FROM Note n " +
+            "WHERE n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NoteListItem> findPageAfter(@Param("updatedAt") Date updatedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.example.aidemo.dto.NoteVersion(n.id, n.updatedAt, n.summarizedAt) " +
+            "FROM Note n WHERE n.id = :id")
+    Optional<NoteVersion> findVersionById(@Param("id") Long id);
+
+    // title_lower is a generated column with its own index (see V1__create_notes.sql)
+    @Query(value = "SELECT * FROM note WHERE title_lower LIKE :pattern ESCAPE '\\' ORDER BY title_lower, id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Note> findByTitlePrefix(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT n FROM Note n ORDER BY n.updatedAt DESC, n.id DESC")
+    Stream<Note> streamAll();
+
+    // Single-statement writes: no entity is loaded first. A null version skips the conflict check.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Note n SET n.title = :title, n.content = :content, n.updatedAt = :updatedAt, " +
+            "n.version = n.version + 1 WHERE n.id = :id AND (:version IS NULL OR n.version = :version)")
+    int updateNote(@Param("id") Long id, @Param("title") String title, @Param("content") String content,
+                   @Param("updatedAt") Date updatedAt, @Param("version") Long version);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Note n SET n.title = COALESCE(:title, n.title), n.content = COALESCE(:content, n.content), " +
+            "n.updatedAt = :updatedAt, n.version = n.version + 1 " +
+            "WHERE n.id = :id AND (:version IS NULL OR n.version = :version)")
+    int patchNote(@Param("id") Long id, @Param("title") String title, @Param("content") String content,
+                  @Param("updatedAt") Date updatedAt, @Param("version") Long version);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Note n WHERE n.id = :id")
+    int deleteNoteById(@Param("id") Long id);
+
+    // Leaves updatedAt and version untouched: a new summary is not an edit of the note. Only
+    // applies to the version that was summarized, so a slow summary cannot overwrite a newer edit's.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Note n SET n.summary = :summary, n.summaryContentHash = :contentHash, " +
+            "n.summarizedAt = :summarizedAt WHERE n.id = :id AND n.version = :version")
+    int updateSummary(@Param("id") Long id, @Param("summary") String summary,
+                      @Param("contentHash") String contentHash, @Param("summarizedAt") Date summarizedAt,
+                      @Param("version") Long version);
+}
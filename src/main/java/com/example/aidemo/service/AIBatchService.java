@@ -0,0 +1,173 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AIBatchItemResult;
+import com.example.aidemo.dto.AIBatchProgress;
+import com.example.aidemo.dto.AIBatchRequest;
+import com.example.aidemo.dto.AIBatchResponse;
+import com.example.aidemo.model.Note;
+import com.example.aidemo.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs one AI operation over many inputs with a bounded number of concurrent model calls.
+ */
+@Slf4j
+@Service
+public class AIBatchService {
+
+    private final AIService aiService;
+    private final NoteRepository noteRepository;
+    private final ExecutorService aiExecutor;
+    private final int defaultConcurrency;
+    private final int maxConcurrency;
+    private final int maxItems;
+
+    public AIBatchService(AIService aiService,
+                          NoteRepository noteRepository,
+                          @Qualifier("aiExecutor") ExecutorService aiExecutor,
+                          @Value("${ai.batch.concurrency:8}") int defaultConcurrency,
+                          @Value("${ai.batch.max-concurrency:32}") int maxConcurrency,
+                          @Value("${ai.batch.max-items:1000}") int maxItems) {
+        this.aiService = aiService;
+        this.noteRepository = noteRepository;
+        this.aiExecutor = aiExecutor;
+        this.defaultConcurrency = defaultConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.maxItems = maxItems;
+    }
+
+    public AIBatchResponse process(AIBatchRequest request) {
+        return process(request, progress -> { });
+    }
+
+    /**
+     * Processes the batch and reports every finished item to {@code progressListener}.
+     * Interrupting the calling thread stops scheduling new items; unscheduled items are
+     * reported as cancelled.
+     */
+    public AIBatchResponse process(AIBatchRequest request, Consumer<AIBatchProgress> progressListener) {
+        long start = System.nanoTime();
+        List<BatchItem> items = resolveItems(request);
+        int total = items.size();
+        int concurrency = Math.max(1, Math.min(
+                request.getConcurrency() != null ? request.getConcurrency() : defaultConcurrency, maxConcurrency));
+
+        AIBatchItemResult[] results = new AIBatchItemResult[total];
+        AtomicInteger completed = new AtomicInteger();
+        Consumer<AIBatchItemResult> complete = result -> {
+            results[result.getIndex()] = result;
+            AIBatchProgress progress = new AIBatchProgress(completed.incrementAndGet(), total, result);
+            synchronized (progressListener) {
+                progressListener.accept(progress);
+            }
+        };
+
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<Void>> calls = new ArrayList<>(total);
+        for (BatchItem item : items) {
+            if (item.error() != null) {
+                complete.accept(new AIBatchItemResult(item.index(), item.noteId(), null, item.error()));
+                continue;
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            calls.add(CompletableFuture
+                    .runAsync(() -> complete.accept(run(request.getOperation(), item)), aiExecutor)
+                    .whenComplete((ignored, error) -> permits.release()));
+        }
+
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        for (BatchItem item : items) {
+            if (results[item.index()] == null) {
+                results[item.index()] = new AIBatchItemResult(item.index(), item.noteId(), null, "Cancelled");
+            }
+        }
+
+        List<AIBatchItemResult> ordered = Arrays.asList(results);
+        int failed = (int) ordered.stream().filter(result -> result.getError() != null).count();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new AIBatchResponse(total, total - failed, failed, elapsedMillis, ordered);
+    }
+
+    private AIBatchItemResult run(AIOperation operation, BatchItem item) {
+        try {
+            // Long notes only fit the prompt budget when summarized in chunks
+            String result = operation == AIOperation.SUMMARIZE
+                    ? aiService.generateSummary(item.input())
+                    : aiService.generateResponse(operation, item.input());
+            return new AIBatchItemResult(item.index(), item.noteId(), result, null);
+        } catch (RuntimeException e) {
+            log.debug("Batch item {} failed", item.index(), e);
+            return new AIBatchItemResult(item.index(), item.noteId(), null, e.getMessage());
+        }
+    }
+
+    /**
+     * Validates the request and returns how many items it contains, so callers can admit it
+     * before any model call is made.
+     */
+    public int validate(AIBatchRequest request) {
+        int size = (request.getNoteIds() != null ? request.getNoteIds().size() : 0)
+                + (request.getTexts() != null ? request.getTexts().size() : 0);
+        if (request.getOperation() == null) {
+            throw new IllegalArgumentException("Batch operation is required");
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("Batch must contain noteIds or texts");
+        }
+        if (size > maxItems) {
+            throw new IllegalArgumentException("Batch exceeds the limit of " + maxItems + " items");
+        }
+        return size;
+    }
+
+    private List<BatchItem> resolveItems(AIBatchRequest request) {
+        validate(request);
+        List<Long> noteIds = request.getNoteIds() != null ? request.getNoteIds() : List.of();
+        List<String> texts = request.getTexts() != null ? request.getTexts() : List.of();
+
+        List<BatchItem> items = new ArrayList<>(noteIds.size() + texts.size());
+        if (!noteIds.isEmpty()) {
+            Map<Long, Note> notes = noteRepository.findAllById(noteIds).stream()
+                    .collect(Collectors.toMap(Note::getId, Function.identity()));
+            for (Long noteId : noteIds) {
+                Note note = notes.get(noteId);
+                if (note == null) {
+                    items.add(new BatchItem(items.size(), noteId, null, "Note not found with id: " + noteId));
+                } else {
+                    String text = note.getContent() == null || note.getContent().isBlank()
+                            ? note.getTitle() : note.getContent();
+                    items.add(new BatchItem(items.size(), noteId, text, null));
+                }
+            }
+        }
+        for (String text : texts) {
+            items.add(text == null || text.isBlank()
+                    ? new BatchItem(items.size(), null, null, "Text is empty")
+                    : new BatchItem(items.size(), null, text, null));
+        }
+        return items;
+    }
+
+    private record BatchItem(int index, Long noteId, String input, String error) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker for model calls, shared by all operations since they hit the same endpoint.
+ * Opens when the failure rate over the last {@code window} calls reaches the threshold, rejects
+ * calls while open, then lets a single probe through: its success closes the circuit, its
+ * failure opens it again. Every admitted call gets a {@link Permit} to report its outcome on,
+ * so only the probe's own outcome decides the half-open state; calls admitted before the
+ * circuit opened are not counted once they finish.
+ */
+@Component
+public class AICircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+
+    private final boolean[] outcomes;
+    private int next;
+    private int calls;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private Permit probe;
+    // Counts closings, so outcomes of calls admitted before the circuit last opened are dropped
+    private long closedPeriod;
+
+    private final Counter rejections;
+
+    public AICircuitBreaker(MeterRegistry meterRegistry,
+                            @Value("${ai.resilience.circuit.window:20}") int window,
+                            @Value("${ai.resilience.circuit.min-calls:10}") int minCalls,
+                            @Value("${ai.resilience.circuit.failure-rate:0.5}") double failureRateThreshold,
+                            @Value("${ai.resilience.circuit.open-duration:30s}") Duration openDuration) {
+        if (window < 1 || minCalls < 1 || minCalls > window || failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("ai.resilience.circuit.* needs 0 < min-calls <= window and 0 < failure-rate <= 1");
+        }
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.outcomes = new boolean[window];
+        this.rejections = AIRateLimiter.rejectionCounter(meterRegistry, "circuit_open");
+        Gauge.builder("ai.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("AI circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a call, or returns null while the circuit is open or its probe is in flight.
+     */
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+            state = State.HALF_OPEN;
+            probe = null;
+        }
+        if (state == State.CLOSED) {
+            return new Permit(false, closedPeriod);
+        }
+        if (state == State.HALF_OPEN && probe == null) {
+            probe = new Permit(true, closedPeriod);
+            return probe;
+        }
+        rejections.increment();
+        return null;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Time until the circuit will let a probe through; zero unless it is open.
+     */
+    public synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openDuration.toNanos() - (System.nanoTime() - openedAt)));
+    }
+
+    private synchronized void complete(Permit permit, Outcome outcome) {
+        if (permit.completed) {
+            return;
+        }
+        permit.completed = true;
+        if (permit.isProbe) {
+            // A probe from an earlier half-open period no longer decides anything
+            if (permit != probe) {
+                return;
+            }
+            probe = null;
+            if (outcome == Outcome.SUCCESS) {
+                reset();
+            } else if (outcome == Outcome.FAILURE) {
+                open();
+            }
+            return;
+        }
+        if (state != State.CLOSED || permit.closedPeriod != closedPeriod || outcome == Outcome.IGNORED) {
+            return;
+        }
+        record(outcome == Outcome.FAILURE);
+        if (outcome == Outcome.FAILURE && calls >= minCalls && failures >= failureRateThreshold * calls) {
+            open();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        probe = null;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        closedPeriod++;
+        probe = null;
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    private enum Outcome {
+        SUCCESS, FAILURE, IGNORED
+    }
+
+    /**
+     * Admission of one call; only the first outcome reported on it counts.
+     */
+    public final class Permit {
+
+        private final boolean isProbe;
+        private final long closedPeriod;
+        private boolean completed;
+
+        private Permit(boolean isProbe, long closedPeriod) {
+            this.isProbe = isProbe;
+            this.closedPeriod = closedPeriod;
+        }
+
+        public boolean isProbe() {
+            return isProbe;
+        }
+
+        public void onSuccess() {
+            complete(this, Outcome.SUCCESS);
+        }
+
+        public void onFailure() {
+            complete(this, Outcome.FAILURE);
+        }
+
+        /**
+         * Ends a call whose outcome says nothing about the model's health (cancelled, rejected
+         * locally, bad input), freeing the probe slot if it was the probe.
+         */
+        public void onIgnored() {
+            complete(this, Outcome.IGNORED);
+        }
+    }
+}
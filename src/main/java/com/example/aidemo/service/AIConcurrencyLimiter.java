@@ -0,0 +1,167 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent model calls. Callers beyond the cap wait in a bounded FIFO queue for at most
+ * the queue timeout; when the queue is full or the wait times out the call is shed with
+ * {@link AIOverloadedException} instead of piling more load onto the model. Waiting is
+ * non-blocking: {@link #acquire()} returns a future that completes once a permit is handed over.
+ * Cancelling that future gives up the place in the queue.
+ */
+@Component
+public class AIConcurrencyLimiter {
+
+    private static final Duration QUEUE_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration queueTimeout;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int available;
+
+    private final Timer waitTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public AIConcurrencyLimiter(MeterRegistry meterRegistry,
+                                @Value("${ai.admission.max-concurrent:16}") int maxConcurrent,
+                                @Value("${ai.admission.max-queue:64}") int maxQueue,
+                                @Value("${ai.admission.queue-timeout:5s}") Duration queueTimeout) {
+        if (maxConcurrent < 1 || maxQueue < 0) {
+            throw new IllegalArgumentException("ai.admission.max-concurrent must be positive and max-queue not negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeout = queueTimeout;
+        this.available = maxConcurrent;
+        this.waitTimer = Timer.builder("ai.admission.wait")
+                .description("Time AI calls spent queued for a concurrency permit")
+                .register(meterRegistry);
+        this.queueFullRejections = AIRateLimiter.rejectionCounter(meterRegistry, "queue_full");
+        this.timeoutRejections = AIRateLimiter.rejectionCounter(meterRegistry, "queue_timeout");
+        Gauge.builder("ai.admission.queue.depth", this, AIConcurrencyLimiter::queueDepth)
+                .description("AI calls waiting for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("ai.admission.in.flight", this, AIConcurrencyLimiter::inFlight)
+                .description("AI calls holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Permit> acquire() {
+        Waiter waiter;
+        synchronized (this) {
+            if (available > 0) {
+                available--;
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            if (waiters.size() >= maxQueue) {
+                queueFullRejections.increment();
+                return CompletableFuture.failedFuture(new AIOverloadedException("AI request queue is full", QUEUE_RETRY_AFTER));
+            }
+            waiter = new Waiter(System.nanoTime());
+            waiters.addLast(waiter);
+        }
+        // A caller that gives up (cancels) leaves the queue now rather than when its turn comes
+        waiter.future.whenComplete((permit, error) -> {
+            if (error != null) {
+                synchronized (this) {
+                    waiters.remove(waiter);
+                }
+            }
+        });
+        CompletableFuture.delayedExecutor(queueTimeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            boolean removed;
+            synchronized (this) {
+                removed = waiters.remove(waiter);
+            }
+            if (removed) {
+                timeoutRejections.increment();
+                waiter.future.completeExceptionally(
+                        new AIOverloadedException("Timed out waiting for AI capacity", QUEUE_RETRY_AFTER));
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Blocking variant of {@link #acquire()} for callers that run on their own thread.
+     */
+    public Permit await() {
+        try {
+            return acquire().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public synchronized int queueDepth() {
+        return waiters.size();
+    }
+
+    public synchronized int inFlight() {
+        return maxConcurrent - available;
+    }
+
+    private void release() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            // Hand the permit straight to the oldest waiter; skip waiters whose caller gave up
+            waitTimer.record(System.nanoTime() - next.enqueuedAt, TimeUnit.NANOSECONDS);
+            if (next.future.complete(new Permit())) {
+                return;
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final long enqueuedAt;
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        private Waiter(long enqueuedAt) {
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * A concurrency permit; closing it more than once has no effect.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AIJobResponse;
+import com.example.aidemo.model.AIJob;
+import com.example.aidemo.model.AIJobStatus;
+import com.example.aidemo.repository.AIJobRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs AI requests in the background so no HTTP request waits on the model. Jobs are stored
+ * before they are accepted and run by a fixed pool of workers in submission order. Jobs left
+ * queued or running by a restart are queued again on startup. A job shed by admission control
+ * or an open circuit goes back to the queue after the suggested delay, up to
+ * {@code max-attempts} starts. {@link AIService} is resolved by the first job that runs, not by
+ * the recovery on startup.
+ */
+@Slf4j
+@Service
+public class AIJobService {
+
+    static final Set<AIOperation> OPERATIONS =
+            EnumSet.of(AIOperation.SUMMARIZE, AIOperation.IDEAS, AIOperation.IMPROVE, AIOperation.ANSWER);
+    private static final Duration QUEUE_FULL_RETRY_AFTER = Duration.ofSeconds(5);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AIJobRepository jobRepository;
+    private final AIService aiService;
+    private final int maxQueued;
+    private final int maxInputLength;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, CompletableFuture<AIJob>> completions = new ConcurrentHashMap<>();
+
+    public AIJobService(AIJobRepository jobRepository,
+                        @Lazy AIService aiService,
+                        @Value("${ai.jobs.concurrency:4}") int concurrency,
+                        @Value("${ai.jobs.max-queued:1000}") int maxQueued,
+                        @Value("${ai.jobs.max-input-length:100000}") int maxInputLength,
+                        @Value("${ai.jobs.max-attempts:5}") int maxAttempts,
+                        @Value("${ai.jobs.retention:7d}") Duration retention) {
+        if (concurrency < 1 || maxQueued < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("ai.jobs.concurrency, max-queued and max-attempts must be positive");
+        }
+        this.jobRepository = jobRepository;
+        this.aiService = aiService;
+        this.maxQueued = maxQueued;
+        this.maxInputLength = maxInputLength;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        // The queue holds ids only; the job itself is in the table
+        this.workers = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("ai-job-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("ai-job-scheduler-"));
+    }
+
+    public AIJob submit(AIOperation operation, String text) {
+        if (operation == null || !OPERATIONS.contains(operation)) {
+            throw new IllegalArgumentException("operation must be one of " + OPERATIONS);
+        }
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("text is required");
+        }
+        if (text.length() > maxInputLength) {
+            throw new IllegalArgumentException("text must be at most " + maxInputLength + " characters");
+        }
+        if (workers.getQueue().size() >= maxQueued) {
+            throw new AIOverloadedException("AI job queue is full", QUEUE_FULL_RETRY_AFTER);
+        }
+        AIJob job = jobRepository.save(AIJob.builder()
+                .operation(operation)
+                .status(AIJobStatus.QUEUED)
+                .input(text)
+                .createdAt(new Date())
+                .build());
+        enqueue(job.getId());
+        return job;
+    }
+
+    public AIJob getJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("AI job not found with id: " + id));
+    }
+
+    /**
+     * Completes with the job once it has succeeded or failed.
+     */
+    public CompletableFuture<AIJobResponse> awaitCompletion(Long id) {
+        AIJob job = getJob(id);
+        if (job.getStatus().isFinished()) {
+            return CompletableFuture.completedFuture(AIJobResponse.of(job));
+        }
+        CompletableFuture<AIJob> completion = completions.computeIfAbsent(id, key -> new CompletableFuture<>());
+        // The job may have finished between the read above and registering
+        AIJob current = getJob(id);
+        if (current.getStatus().isFinished()) {
+            completions.remove(id, completion);
+            completion.complete(current);
+        }
+        return completion.thenApply(AIJobResponse::of);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int interrupted = jobRepository.requeueAll(AIJobStatus.RUNNING, AIJobStatus.QUEUED);
+        List<Long> queued = jobRepository.findIdsByStatus(AIJobStatus.QUEUED);
+        queued.forEach(this::enqueue);
+        if (!queued.isEmpty()) {
+            log.info("Resumed {} AI jobs ({} interrupted by the last shutdown)", queued.size(), interrupted);
+        }
+        scheduler.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    void run(Long id) {
+        if (jobRepository.claim(id, AIJobStatus.QUEUED, AIJobStatus.RUNNING, new Date()) == 0) {
+            return;
+        }
+        AIJob job = jobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            String result = job.getOperation() == AIOperation.SUMMARIZE
+                    ? aiService.generateSummary(job.getInput())
+                    : aiService.generateResponse(job.getOperation(), job.getInput());
+            finish(job, AIJobStatus.SUCCEEDED, result, null);
+        } catch (AIOverloadedException e) {
+            retryLater(job, e, e.getRetryAfter());
+        } catch (AIUnavailableException e) {
+            retryLater(job, e, e.getRetryAfter());
+        } catch (RuntimeException e) {
+            if (workers.isShutdown()) {
+                // Interrupted by shutdown: left running so the next start picks it up again
+                return;
+            }
+            log.warn("AI job {} failed", id, e);
+            finish(job, AIJobStatus.FAILED, null, errorMessage(e));
+        }
+    }
+
+    void purge() {
+        try {
+            int deleted = jobRepository.deleteCompletedBefore(new Date(System.currentTimeMillis() - retention.toMillis()));
+            if (deleted > 0) {
+                log.info("Deleted {} AI jobs finished more than {} ago", deleted, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not delete old AI jobs", e);
+        }
+    }
+
+    private void retryLater(AIJob job, RuntimeException error, Duration delay) {
+        if (job.getAttempts() >= maxAttempts) {
+            finish(job, AIJobStatus.FAILED, null, errorMessage(error));
+            return;
+        }
+        jobRepository.requeue(job.getId(), AIJobStatus.QUEUED);
+        scheduler.schedule(() -> enqueue(job.getId()), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void finish(AIJob job, AIJobStatus status, String result, String error) {
+        Date completedAt = new Date();
+        jobRepository.finish(job.getId(), status, result, error, completedAt);
+        CompletableFuture<AIJob> completion = completions.remove(job.getId());
+        if (completion != null) {
+            job.setStatus(status);
+            job.setResult(result);
+            job.setError(error);
+            job.setCompletedAt(completedAt);
+            completion.complete(job);
+        }
+    }
+
+    private static String errorMessage(RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private void enqueue(Long id) {
+        workers.execute(() -> run(id));
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
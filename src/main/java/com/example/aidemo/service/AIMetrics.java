@@ -0,0 +1,101 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer instrumentation for model calls: latency per operation, token usage and errors.
+ * {@code ai.model.tokens} is what the model reports; {@code ai.prompt.tokens} is the local
+ * estimate of prompt tokens sent and saved, which is also available for cache hits.
+ */
+@Component
+@RequiredArgsConstructor
+public class AIMetrics {
+
+    static final String CALL_TIMER = "ai.model.call";
+    static final String TOKEN_COUNTER = "ai.model.tokens";
+    static final String ERROR_COUNTER = "ai.model.errors";
+    static final String PROMPT_TOKEN_COUNTER = "ai.prompt.tokens";
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Records a streamed call from the usage in its last response. Streams do not always report
+     * usage, so missing counts are estimated from the prompt and the received completion.
+     */
+    public void recordSuccess(AIOperation operation, Timer.Sample sample, ChatResponse lastResponse,
+                              CharSequence prompt, CharSequence completion) {
+        Usage usage = lastResponse != null && lastResponse.getMetadata() != null ? lastResponse.getMetadata().getUsage() : null;
+        Long promptTokens = usage == null ? null : usage.getPromptTokens();
+        Long completionTokens = usage == null ? null : usage.getGenerationTokens();
+        recordSuccess(operation, sample,
+                promptTokens != null && promptTokens > 0 ? promptTokens : TokenEstimator.estimate(prompt),
+                completionTokens != null && completionTokens > 0 ? completionTokens : TokenEstimator.estimate(completion));
+    }
+
+    public void recordSuccess(AIOperation operation, Timer.Sample sample, Long promptTokens, Long completionTokens) {
+        sample.stop(callTimer(operation, "success"));
+        recordTokens(operation, "prompt", promptTokens);
+        recordTokens(operation, "completion", completionTokens);
+    }
+
+    public void recordCancelled(AIOperation operation, Timer.Sample sample) {
+        sample.stop(callTimer(operation, "cancelled"));
+    }
+
+    public void recordError(AIOperation operation, Timer.Sample sample, Throwable error) {
+        sample.stop(callTimer(operation, "error"));
+        Counter.builder(ERROR_COUNTER)
+                .tag("operation", tag(operation))
+                .tag("exception", error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordTokens(AIOperation operation, String type, Long tokens) {
+        if (tokens != null && tokens > 0) {
+            Counter.builder(TOKEN_COUNTER)
+                    .tag("operation", tag(operation))
+                    .tag("type", type)
+                    .baseUnit("tokens")
+                    .register(meterRegistry)
+                    .increment(tokens);
+        }
+    }
+
+    public void recordPromptTokens(AIOperation operation, int sent, int saved) {
+        promptTokens(operation, "sent", sent);
+        promptTokens(operation, "saved", saved);
+    }
+
+    private void promptTokens(AIOperation operation, String type, int tokens) {
+        if (tokens > 0) {
+            Counter.builder(PROMPT_TOKEN_COUNTER)
+                    .tag("operation", tag(operation))
+                    .tag("type", type)
+                    .baseUnit("tokens")
+                    .register(meterRegistry)
+                    .increment(tokens);
+        }
+    }
+
+    private Timer callTimer(AIOperation operation, String outcome) {
+        return Timer.builder(CALL_TIMER)
+                .tag("operation", tag(operation))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String tag(AIOperation operation) {
+        return operation.name().toLowerCase();
+    }
+}
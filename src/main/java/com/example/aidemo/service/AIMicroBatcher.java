@@ -0,0 +1,245 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Combines small requests for the same operation into one model call. The first request opens a
+ * batch that is sent after the collection window or as soon as it is full; the prompt asks for
+ * one numbered section per item and the response is split back to the callers. Items whose
+ * section is missing or empty are retried on their own, as is the last section of a response
+ * that hit the token limit, since it may be cut short. A failed batch call fails every item
+ * instead of fanning out, so an overloaded model is not hit with more calls.
+ */
+@Component
+public class AIMicroBatcher {
+
+    static final String ITEM_HEADER = "### ITEM ";
+
+    private static final Pattern ITEM_LINE = Pattern.compile("(?m)^###\\s*ITEM\\s+(\\d{1,4})\\s*:?\\s*$");
+    private static final Map<AIOperation, String> INSTRUCTIONS = new EnumMap<>(Map.of(
+            AIOperation.SUMMARIZE, "Please summarize each of the following texts in a concise manner.",
+            AIOperation.IMPROVE, "Please improve each of the following texts by making it more clear, concise, and engaging."));
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxItems;
+    private final int maxItemTokens;
+    private final ScheduledExecutorService scheduler;
+    private final Map<AIOperation, Batch> open = new EnumMap<>(AIOperation.class);
+
+    private final DistributionSummary batchSize;
+    private final Counter fallbacks;
+
+    public AIMicroBatcher(MeterRegistry meterRegistry,
+                          @Value("${ai.batching.enabled:false}") boolean enabled,
+                          @Value("${ai.batching.window:5ms}") Duration window,
+                          @Value("${ai.batching.max-items:8}") int maxItems,
+                          @Value("${ai.batching.max-item-tokens:250}") int maxItemTokens) {
+        if (maxItems < 1 || maxItemTokens < 1) {
+            throw new IllegalArgumentException("ai.batching.max-items and ai.batching.max-item-tokens must be positive");
+        }
+        this.enabled = enabled;
+        this.window = window;
+        this.maxItems = maxItems;
+        this.maxItemTokens = maxItemTokens;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ai-batcher-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.batchSize = DistributionSummary.builder("ai.batching.batch.size")
+                .description("Requests sent together in one model call")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("ai.batching.fallbacks")
+                .description("Batched requests retried on their own because their answer could not be parsed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the input can share a call: batching is on, the operation has a multi-item
+     * instruction, and the input is small and cannot be mistaken for an item header.
+     */
+    public boolean accepts(AIOperation operation, String input) {
+        return enabled
+                && INSTRUCTIONS.containsKey(operation)
+                && TokenEstimator.estimate(input) <= maxItemTokens
+                && !ITEM_LINE.matcher(input).find();
+    }
+
+    /**
+     * Queues the input for the next batch of its operation.
+     *
+     * @param prompt the single-item prompt, used if the item has to be sent on its own
+     * @param model  sends a prompt to the model without blocking
+     */
+    public CompletableFuture<String> submit(AIOperation operation, String input, String prompt,
+                                            Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model) {
+        Item item = new Item(input, prompt, model);
+        Batch full = null;
+        synchronized (this) {
+            Batch batch = open.get(operation);
+            if (batch == null) {
+                batch = new Batch(operation);
+                open.put(operation, batch);
+                Batch scheduled = batch;
+                scheduler.schedule(() -> flush(scheduled), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            batch.items.add(item);
+            if (batch.items.size() >= maxItems) {
+                open.remove(operation);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return item.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    static String prompt(AIOperation operation, List<String> inputs) {
+        StringBuilder prompt = new StringBuilder(INSTRUCTIONS.get(operation))
+                .append(" Handle each item independently. Answer with one section per item, in order, each starting with a line \"")
+                .append(ITEM_HEADER).append("<number>\" and containing only the answer for that item.");
+        for (int i = 0; i < inputs.size(); i++) {
+            prompt.append("\n\n").append(ITEM_HEADER).append(i + 1).append('\n').append(inputs.get(i));
+        }
+        return prompt.toString();
+    }
+
+    static List<String> parse(String response, int count) {
+        return parse(response, count, false);
+    }
+
+    /**
+     * Answers by position; an entry is null when its section is missing or empty, or when it is
+     * the last section of a {@code truncated} response. Returns all nulls when the numbering is
+     * unusable (out of range or repeated).
+     */
+    static List<String> parse(String response, int count, boolean truncated) {
+        String[] answers = new String[count];
+        boolean[] seen = new boolean[count];
+        Matcher matcher = ITEM_LINE.matcher(response);
+        int current = -1;
+        int start = 0;
+        while (matcher.find()) {
+            if (current >= 0) {
+                answers[current] = answer(response.substring(start, matcher.start()));
+            }
+            current = Integer.parseInt(matcher.group(1)) - 1;
+            if (current < 0 || current >= count || seen[current]) {
+                return Arrays.asList(new String[count]);
+            }
+            seen[current] = true;
+            start = matcher.end();
+        }
+        if (current >= 0 && !truncated) {
+            answers[current] = answer(response.substring(start));
+        }
+        return Arrays.asList(answers);
+    }
+
+    private static String answer(String section) {
+        String answer = section.strip();
+        return answer.isEmpty() ? null : answer;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            // Already sent when it filled up
+            if (open.get(batch.operation) != batch) {
+                return;
+            }
+            open.remove(batch.operation);
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        List<Item> items = batch.items;
+        batchSize.record(items.size());
+        if (items.size() == 1) {
+            sendAlone(items.get(0));
+            return;
+        }
+        List<String> inputs = items.stream().map(item -> item.input).toList();
+        send(items.get(0).model, prompt(batch.operation, inputs)).whenComplete((response, error) -> {
+            if (error != null) {
+                items.forEach(item -> item.result.completeExceptionally(error));
+                return;
+            }
+            List<String> answers = parse(response.text(), items.size(), response.truncated());
+            for (int i = 0; i < items.size(); i++) {
+                if (answers.get(i) != null) {
+                    items.get(i).result.complete(answers.get(i));
+                } else {
+                    fallbacks.increment();
+                    sendAlone(items.get(i));
+                }
+            }
+        });
+    }
+
+    private static void sendAlone(Item item) {
+        send(item.model, item.prompt).whenComplete((response, error) -> {
+            if (error != null) {
+                item.result.completeExceptionally(error);
+            } else {
+                item.result.complete(response.text());
+            }
+        });
+    }
+
+    private static CompletableFuture<AnthropicAsyncClient.Completion> send(
+            Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model, String prompt) {
+        try {
+            return model.apply(prompt);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static final class Batch {
+        private final AIOperation operation;
+        private final List<Item> items = new ArrayList<>();
+
+        private Batch(AIOperation operation) {
+            this.operation = operation;
+        }
+    }
+
+    private static final class Item {
+        private final String input;
+        private final String prompt;
+        private final Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private Item(String input, String prompt, Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model) {
+            this.input = input;
+            this.prompt = prompt;
+            this.model = model;
+        }
+    }
+}
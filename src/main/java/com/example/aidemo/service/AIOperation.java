@@ -0,0 +1,25 @@
+package com.example.aidemo.service;
+
+public enum AIOperation {
+
+    SUMMARIZE("Please summarize the following text in a concise manner: {input}"),
+    IDEAS("Generate 5 creative ideas related to the following topic: {input}"),
+    IMPROVE("Please improve the following text by making it more clear, concise, and engaging: {input}"),
+    ANSWER("Please answer the following question in a helpful and informative way: {input}"),
+    COMBINE_SUMMARIES("The following are summaries of consecutive parts of one document, separated by ---. "
+            + "Combine them into a single concise summary of the whole document: {input}");
+
+    private final PromptTemplate template;
+
+    AIOperation(String template) {
+        this.template = PromptTemplate.compile(template);
+    }
+
+    public PromptTemplate template() {
+        return template;
+    }
+
+    public String prompt(String input) {
+        return template.render(input);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.aidemo.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an AI request is shed by admission control; maps to 429 Too Many Requests.
+ */
+public class AIOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AIOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Whole seconds for the {@code Retry-After} header, rounded up and at least one.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
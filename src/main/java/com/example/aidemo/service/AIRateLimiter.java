@@ -0,0 +1,116 @@
+package com.example.aidemo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Request-rate limits for the AI endpoints: one token bucket per client plus a global bucket.
+ * A client over its own limit is rejected without spending a global token. A rate of 0
+ * disables the corresponding limit.
+ */
+@Component
+public class AIRateLimiter {
+
+    static final String REJECTED_COUNTER = "ai.admission.rejected";
+
+    private final TokenBucket globalBucket;
+    private final int globalBurst;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final double clientRate;
+    private final int clientBurst;
+    private final Counter clientRejections;
+    private final Counter globalRejections;
+
+    public AIRateLimiter(MeterRegistry meterRegistry,
+                         @Value("${ai.admission.global.rate:20}") double globalRate,
+                         @Value("${ai.admission.global.burst:40}") int globalBurst,
+                         @Value("${ai.admission.client.rate:2}") double clientRate,
+                         @Value("${ai.admission.client.burst:10}") int clientBurst) {
+        this.globalBurst = Math.max(1, globalBurst);
+        this.globalBucket = globalRate > 0 ? new TokenBucket(globalRate, this.globalBurst) : null;
+        // Idle clients' buckets are full again after burst / rate seconds, so they can be dropped
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.clientRate = clientRate;
+        this.clientBurst = Math.max(1, clientBurst);
+        this.clientRejections = rejectionCounter(meterRegistry, "client_rate");
+        this.globalRejections = rejectionCounter(meterRegistry, "global_rate");
+    }
+
+    /**
+     * Admits one request from the client or throws {@link AIOverloadedException} with the time
+     * until the client may retry.
+     */
+    public void acquire(String clientId) {
+        acquire(clientId, 1);
+    }
+
+    /**
+     * Admits a request that makes {@code permits} model calls, such as a batch, charging one
+     * token per call. A request may not make more calls than either burst allows, so no single
+     * request can drain the global bucket for everyone else; larger ones are rejected with
+     * {@link IllegalArgumentException}. Client tokens are only taken once the global bucket
+     * has admitted the request.
+     */
+    public void acquire(String clientId, int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        if (permits > maxPermits()) {
+            throw new IllegalArgumentException("A request may make at most " + maxPermits() + " AI calls");
+        }
+        TokenBucket clientBucket = clientRate > 0
+                ? clientBuckets.get(clientId, id -> new TokenBucket(clientRate, clientBurst))
+                : null;
+        if (clientBucket != null) {
+            rejectIfWaiting(clientBucket.waitFor(permits), clientRejections, "Too many AI requests from this client");
+        }
+        if (globalBucket != null) {
+            rejectIfWaiting(globalBucket.tryConsume(permits), globalRejections, "AI service is at capacity");
+        }
+        if (clientBucket != null) {
+            // Another request from the same client may have taken the tokens since the check above
+            long waitNanos = clientBucket.tryConsume(permits);
+            if (waitNanos > 0 && globalBucket != null) {
+                globalBucket.refund(permits);
+            }
+            rejectIfWaiting(waitNanos, clientRejections, "Too many AI requests from this client");
+        }
+    }
+
+    /**
+     * The most model calls a single request may be charged for.
+     */
+    public int maxPermits() {
+        int max = Integer.MAX_VALUE;
+        if (clientRate > 0) {
+            max = clientBurst;
+        }
+        if (globalBucket != null) {
+            max = Math.min(max, globalBurst);
+        }
+        return max;
+    }
+
+    private static void rejectIfWaiting(long waitNanos, Counter rejections, String message) {
+        if (waitNanos > 0) {
+            rejections.increment();
+            throw new AIOverloadedException(message, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTED_COUNTER)
+                .description("AI requests rejected by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
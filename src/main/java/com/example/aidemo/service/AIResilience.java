@@ -0,0 +1,330 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Deadlines, retries and hedging for model calls. Each operation has a deadline that covers
+ * every attempt; failed attempts are retried after a jittered exponential backoff while the
+ * error is transient and the deadline leaves room. Every attempt passes the
+ * {@link AICircuitBreaker}. When hedging is on, an attempt still running after the operation's
+ * recent p95 latency gets a second, parallel attempt and the first answer wins. Streamed calls
+ * go through {@link #stream}, which applies the deadline and the circuit breaker only.
+ */
+@Component
+public class AIResilience {
+
+    static final int HEDGE_MIN_SAMPLES = 20;
+    private static final Duration TIMEOUT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AICircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final boolean hedging;
+    private final long hedgeMinDelayNanos;
+    private final Map<AIOperation, Duration> deadlines = new EnumMap<>(AIOperation.class);
+    private final Map<AIOperation, LatencyWindow> latencies = new EnumMap<>(AIOperation.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public AIResilience(MeterRegistry meterRegistry,
+                        AICircuitBreaker circuitBreaker,
+                        @Value("${ai.resilience.max-attempts:3}") int maxAttempts,
+                        @Value("${ai.resilience.backoff.initial:200ms}") Duration initialBackoff,
+                        @Value("${ai.resilience.backoff.max:2s}") Duration maxBackoff,
+                        @Value("${ai.resilience.hedge.enabled:false}") boolean hedging,
+                        @Value("${ai.resilience.hedge.min-delay:200ms}") Duration hedgeMinDelay,
+                        @Value("${ai.resilience.deadline.summarize:60s}") Duration summarizeDeadline,
+                        @Value("${ai.resilience.deadline.ideas:30s}") Duration ideasDeadline,
+                        @Value("${ai.resilience.deadline.improve:60s}") Duration improveDeadline,
+                        @Value("${ai.resilience.deadline.answer:60s}") Duration answerDeadline) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("ai.resilience.max-attempts must be positive");
+        }
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreaker;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.hedging = hedging;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        deadlines.put(AIOperation.SUMMARIZE, summarizeDeadline);
+        deadlines.put(AIOperation.COMBINE_SUMMARIES, summarizeDeadline);
+        deadlines.put(AIOperation.IDEAS, ideasDeadline);
+        deadlines.put(AIOperation.IMPROVE, improveDeadline);
+        deadlines.put(AIOperation.ANSWER, answerDeadline);
+        for (AIOperation operation : AIOperation.values()) {
+            latencies.put(operation, new LatencyWindow(100));
+        }
+    }
+
+    /**
+     * Runs {@code attempt} under the operation's deadline, retry and hedging policy. Each call
+     * of {@code attempt} must start a new model call, and should stop it when the returned
+     * future is completed or cancelled from outside.
+     */
+    public <T> CompletableFuture<T> call(AIOperation operation, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + deadlines.get(operation).toNanos();
+        run(operation, attempt, 1, deadline, result);
+        return result;
+    }
+
+    /**
+     * Guards a streamed model call: fails fast while the circuit is open, fails with
+     * {@link AIUnavailableException} when no element arrives within the operation's deadline, and
+     * reports the outcome to the circuit breaker. Streams are neither retried nor hedged, since
+     * part of the answer may already have reached the client.
+     */
+    public <T> Flux<T> stream(AIOperation operation, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            AICircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+            if (permit == null) {
+                return Flux.error(new AIUnavailableException("AI model is unavailable", circuitBreaker.retryAfter()));
+            }
+            Flux<T> source;
+            try {
+                source = call.get();
+            } catch (RuntimeException e) {
+                source = Flux.error(e);
+            }
+            return source
+                    .timeout(Mono.delay(deadlines.get(operation)), item -> Mono.never())
+                    .doOnComplete(permit::onSuccess)
+                    .doOnError(error -> {
+                        if (retryable(error)) {
+                            permit.onFailure();
+                        } else {
+                            permit.onIgnored();
+                        }
+                    })
+                    .doOnCancel(permit::onIgnored)
+                    .onErrorMap(TimeoutException.class, e -> deadlineExceeded(operation, e));
+        });
+    }
+
+    public void recordFallback(AIOperation operation) {
+        counter("ai.resilience.fallbacks", operation).increment();
+    }
+
+    /**
+     * Transient failures worth another attempt: timeouts, throttling and server errors. Local
+     * shedding, an open circuit and client errors are final.
+     */
+    static boolean retryable(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return true;
+        }
+        if (error instanceof AIOverloadedException || error instanceof AIUnavailableException
+                || error instanceof CancellationException || error instanceof IllegalArgumentException) {
+            return false;
+        }
+        if (error instanceof SdkServiceException e) {
+            return e.isThrottlingException() || e.statusCode() >= 500 || e.statusCode() == 408;
+        }
+        return true;
+    }
+
+    private <T> void run(AIOperation operation, Supplier<CompletableFuture<T>> attempt, int attemptNumber,
+                         long deadline, CompletableFuture<T> result) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            result.completeExceptionally(deadlineExceeded(operation, new TimeoutException()));
+            return;
+        }
+        AICircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            result.completeExceptionally(new AIUnavailableException("AI model is unavailable", circuitBreaker.retryAfter()));
+            return;
+        }
+        race(operation, attempt, remaining, permit).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            long backoff = backoff(attemptNumber);
+            if (attemptNumber < maxAttempts && retryable(cause) && deadline - System.nanoTime() > backoff) {
+                counter("ai.resilience.retries", operation).increment();
+                CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS)
+                        .execute(() -> run(operation, attempt, attemptNumber + 1, deadline, result));
+            } else if (cause instanceof TimeoutException) {
+                result.completeExceptionally(deadlineExceeded(operation, cause));
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private AIUnavailableException deadlineExceeded(AIOperation operation, Throwable cause) {
+        return new AIUnavailableException("AI model did not respond within " + deadlines.get(operation).toMillis() + " ms",
+                TIMEOUT_RETRY_AFTER, cause);
+    }
+
+    private <T> CompletableFuture<T> race(AIOperation operation, Supplier<CompletableFuture<T>> attempt,
+                                          long timeoutNanos, AICircuitBreaker.Permit permit) {
+        Race<T> race = new Race<>();
+        race.add(attempt(operation, attempt, timeoutNanos, permit));
+        long hedgeDelay = hedgeDelayNanos(operation);
+        if (hedgeDelay >= 0 && hedgeDelay < timeoutNanos) {
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS).execute(() -> {
+                // Hedging adds load, so never while the model is failing
+                if (!race.result.isDone() && circuitBreaker.state() == AICircuitBreaker.State.CLOSED) {
+                    AICircuitBreaker.Permit hedgePermit = circuitBreaker.tryAcquire();
+                    if (hedgePermit != null) {
+                        counter("ai.resilience.hedges", operation).increment();
+                        race.add(attempt(operation, attempt, timeoutNanos - hedgeDelay, hedgePermit));
+                    }
+                }
+            });
+        }
+        return race.result;
+    }
+
+    private <T> CompletableFuture<T> attempt(AIOperation operation, Supplier<CompletableFuture<T>> attempt,
+                                             long timeoutNanos, AICircuitBreaker.Permit permit) {
+        long start = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = attempt.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        // The attempt's own future is returned, not a derived one, so a timeout or a cancel by
+        // the race reaches the caller's model call
+        call.orTimeout(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+            if (error == null) {
+                permit.onSuccess();
+                latencies.get(operation).record(System.nanoTime() - start);
+            } else if (retryable(unwrap(error))) {
+                permit.onFailure();
+            } else {
+                permit.onIgnored();
+            }
+        });
+        return call;
+    }
+
+    // -1 while hedging is off or there are too few samples for a meaningful p95
+    private long hedgeDelayNanos(AIOperation operation) {
+        if (!hedging) {
+            return -1;
+        }
+        long p95 = latencies.get(operation).p95(HEDGE_MIN_SAMPLES);
+        return p95 < 0 ? -1 : Math.max(p95, hedgeMinDelayNanos);
+    }
+
+    // Full jitter: uniform between zero and the exponential step
+    private long backoff(int attemptNumber) {
+        long step = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attemptNumber - 1, 20));
+        return step <= 0 ? 0 : ThreadLocalRandom.current().nextLong(step + 1);
+    }
+
+    private Counter counter(String name, AIOperation operation) {
+        return Counter.builder(name)
+                .tag("operation", operation.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Parallel attempts at one call: completes with the first success, or with the first error
+     * once every attempt has failed. Attempts still running after a success are cancelled, which
+     * stops the model call if the attempt supports it.
+     */
+    private static final class Race<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>();
+        private int running;
+        private Throwable firstError;
+
+        void add(CompletableFuture<T> attempt) {
+            synchronized (this) {
+                if (result.isDone()) {
+                    attempt.cancel(false);
+                    return;
+                }
+                attempts.add(attempt);
+                running++;
+            }
+            attempt.whenComplete(this::settle);
+        }
+
+        private void settle(T value, Throwable error) {
+            List<CompletableFuture<T>> losers;
+            Throwable failure;
+            synchronized (this) {
+                running--;
+                if (firstError == null) {
+                    firstError = error;
+                }
+                if (error == null) {
+                    losers = List.copyOf(attempts);
+                } else if (running > 0) {
+                    return;
+                } else {
+                    losers = List.of();
+                }
+                failure = firstError;
+            }
+            if (error == null) {
+                if (result.complete(value)) {
+                    losers.forEach(loser -> loser.cancel(false));
+                }
+            } else {
+                result.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Latencies of the most recent successful attempts.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long p95(int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AICacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of model responses with TTL expiry. Concurrent misses for the same key
+ * share a single in-flight model call. Expired responses are kept until the stale TTL passes
+ * so {@link #getStale} can serve them while the model is unavailable.
+ */
+@Component
+public class AIResponseCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long staleTtlMillis;
+    private final String modelParameters;
+
+    private final Map<String, CachedResponse> entries;
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AIResponseCache(@Value("${ai.cache.max-size:1000}") int maxSize,
+                           @Value("${ai.cache.ttl:10m}") Duration ttl,
+                           @Value("${ai.cache.stale-ttl:1h}") Duration staleTtl,
+                           @Value("${spring.ai.bedrock.anthropic.claude.model:}") String model,
+                           @Value("${spring.ai.bedrock.anthropic.claude.temperature:}") String temperature,
+                           @Value("${spring.ai.bedrock.anthropic.claude.max-tokens:}") String maxTokens) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.staleTtlMillis = Math.max(ttlMillis, staleTtl.toMillis());
+        this.modelParameters = model + '|' + temperature + '|' + maxTokens;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > AIResponseCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String get(AIOperation operation, String input, Supplier<String> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+        String key = key(operation, input);
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have completed between the lookup and claiming the key
+            String value = lookup(key);
+            if (value == null) {
+                misses.incrementAndGet();
+                value = loader.get();
+                store(key, value);
+            } else {
+                hits.incrementAndGet();
+            }
+            call.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #get}; shares in-flight calls with synchronous callers.
+     */
+    public CompletableFuture<String> getAsync(AIOperation operation, String input,
+                                              Supplier<CompletableFuture<String>> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+        String key = key(operation, input);
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.thenApply(value -> value);
+        }
+
+        misses.incrementAndGet();
+        CompletableFuture<String> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((value, error) -> {
+            if (error == null) {
+                store(key, value);
+                call.complete(value);
+            } else {
+                call.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+            inFlight.remove(key, call);
+        });
+        return call.thenApply(value -> value);
+    }
+
+    public String getIfPresent(AIOperation operation, String input) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String cached = lookup(key(operation, input));
+        if (cached != null) {
+            hits.incrementAndGet();
+        }
+        return cached;
+    }
+
+    /**
+     * A response that may have expired but is still within the stale TTL, for use as a degraded
+     * answer when the model call failed. Does not count as a hit.
+     */
+    public String getStale(AIOperation operation, String input) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key(operation, input));
+            return cached != null && cached.staleUntil() >= System.currentTimeMillis() ? cached.value() : null;
+        }
+    }
+
+    public void put(AIOperation operation, String input, String value) {
+        if (maxSize > 0) {
+            store(key(operation, input), value);
+        }
+    }
+
+    public AICacheStats stats() {
+        long hitCount = hits.get() + coalesced.get();
+        long total = hitCount + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new AICacheStats(hits.get(), misses.get(), coalesced.get(), evictions.get(), size,
+                total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    String key(AIOperation operation, String input) {
+        String normalized = input == null ? "" : input.strip().replaceAll("\\s+", " ");
+        return operation.name() + ':' + sha256(modelParameters + '\u0000' + normalized);
+    }
+
+    private String lookup(String key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            if (cached.expiresAt() < now) {
+                if (cached.staleUntil() < now) {
+                    entries.remove(key);
+                    evictions.incrementAndGet();
+                }
+                return null;
+            }
+            return cached.value();
+        }
+    }
+
+    private void store(String key, String value) {
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            entries.put(key, new CachedResponse(value, now + ttlMillis, now + staleTtlMillis));
+        }
+    }
+
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedResponse(String value, long expiresAt, long staleUntil) {
+    }
+}
@@ -1,43 +1,274 @@
 package com.example.aidemo.service;
 
+import com.example.aidemo.dto.AICacheStats;
+import com.example.aidemo.dto.AIResponse;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.bedrock.anthropic.AnthropicChatModel;
 import org.springframework.ai.chat.ChatResponse;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 public class AIService {
 
     private final AnthropicChatModel anthropicChatModel;
+    private final AnthropicAsyncClient anthropicAsyncClient;
+    private final AIResponseCache responseCache;
+    private final AIMetrics aiMetrics;
+    private final MapReduceSummarizer summarizer;
+    private final AIConcurrencyLimiter concurrencyLimiter;
+    private final PromptBudget promptBudget;
+    private final AIMicroBatcher microBatcher;
+    private final AIResilience resilience;
 
+    /**
+     * Summarizes text of any length. Text over the prompt budget is summarized in chunks in
+     * parallel and the partial summaries are combined; every chunk call goes through the cache.
+     */
     public String generateSummary(String text) {
-        String prompt = "Please summarize the following text in a concise manner: " + text;
-        return generateResponse(prompt);
+        return generateSummary(text, new TokenUsage());
     }
 
     public String generateIdeas(String topic) {
-        String prompt = "Generate 5 creative ideas related to the following topic: " + topic;
-        return generateResponse(prompt);
+        return generateResponse(AIOperation.IDEAS, topic);
     }
 
     public String improveText(String text) {
-        String prompt = "Please improve the following text by making it more clear, concise, and engaging: " + text;
-        return generateResponse(prompt);
+        return generateResponse(AIOperation.IMPROVE, text);
     }
 
     public String answerQuestion(String question) {
-        String prompt = "Please answer the following question in a helpful and informative way: " + question;
-        return generateResponse(prompt);
+        return generateResponse(AIOperation.ANSWER, question);
     }
 
-    private String generateResponse(String message) {
-        Prompt prompt = new Prompt(List.of(new UserMessage(message)));
-        ChatResponse response = anthropicChatModel.call(prompt);
-        return response.getResult().getOutput().getContent();
+    public CompletableFuture<AIResponse> generateSummaryAsync(String text) {
+        summarizer.checkLength(text);
+        TokenUsage usage = new TokenUsage();
+        CompletableFuture<String> summary = summarizer.needsChunking(text)
+                ? summarizer.summarizeAsync(text,
+                        chunk -> generateResponse(AIOperation.SUMMARIZE, chunk, usage),
+                        parts -> generateResponse(AIOperation.COMBINE_SUMMARIES, parts, usage))
+                : generateResponseAsync(AIOperation.SUMMARIZE, text, usage);
+        return summary.thenApply(result -> response(result, usage));
     }
-}
\ No newline at end of file
+
+    public CompletableFuture<AIResponse> generateIdeasAsync(String topic) {
+        return respondAsync(AIOperation.IDEAS, topic);
+    }
+
+    public CompletableFuture<AIResponse> improveTextAsync(String text) {
+        return respondAsync(AIOperation.IMPROVE, text);
+    }
+
+    public CompletableFuture<AIResponse> answerQuestionAsync(String question) {
+        return respondAsync(AIOperation.ANSWER, question);
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateResponse}: no thread is held while the model generates.
+     */
+    public CompletableFuture<String> generateResponseAsync(AIOperation operation, String input) {
+        return generateResponseAsync(operation, input, new TokenUsage());
+    }
+
+    private CompletableFuture<AIResponse> respondAsync(AIOperation operation, String input) {
+        TokenUsage usage = new TokenUsage();
+        return generateResponseAsync(operation, input, usage)
+                .thenApply(result -> response(result, usage));
+    }
+
+    private static AIResponse response(String result, TokenUsage usage) {
+        return new AIResponse(result, usage.snapshot(), usage.degraded());
+    }
+
+    private CompletableFuture<String> generateResponseAsync(AIOperation operation, String input, TokenUsage usage) {
+        PreparedPrompt prompt = promptBudget.prepare(operation, input);
+        AtomicBoolean called = new AtomicBoolean();
+        return responseCache.getAsync(operation, input, () -> {
+            called.set(true);
+            return microBatcher.accepts(operation, input)
+                    ? microBatcher.submit(operation, input, prompt.text(), text -> callModelAsync(operation, text))
+                    : callModelAsync(operation, prompt.text()).thenApply(AnthropicAsyncClient.Completion::text);
+        }).handle((result, error) -> {
+            String answer = error == null ? result : fallback(operation, input, error, usage);
+            recordUsage(operation, prompt, error != null || !called.get(), usage);
+            return answer;
+        });
+    }
+
+    /**
+     * One model call through the concurrency limiter. Completing the returned future early (the
+     * resilience deadline, or a hedged attempt that lost) leaves the admission queue if the call
+     * is still waiting there and otherwise cancels the Bedrock request; either way the permit is
+     * released.
+     */
+    private CompletableFuture<AnthropicAsyncClient.Completion> callModelAsync(AIOperation operation, String message) {
+        return resilience.call(operation, () -> {
+            CompletableFuture<AnthropicAsyncClient.Completion> result = new CompletableFuture<>();
+            CompletableFuture<AIConcurrencyLimiter.Permit> admission = concurrencyLimiter.acquire();
+            admission.whenComplete((permit, admissionError) -> {
+                if (admissionError != null) {
+                    result.completeExceptionally(admissionError);
+                    return;
+                }
+                if (result.isDone()) {
+                    permit.close();
+                    return;
+                }
+                Timer.Sample sample = aiMetrics.start();
+                CompletableFuture<AnthropicAsyncClient.Completion> call;
+                try {
+                    call = anthropicAsyncClient.complete(message);
+                } catch (RuntimeException e) {
+                    call = CompletableFuture.failedFuture(e);
+                }
+                call.whenComplete((completion, error) -> {
+                    permit.close();
+                    if (error == null) {
+                        aiMetrics.recordSuccess(operation, sample, completion.promptTokens(), completion.completionTokens());
+                        result.complete(completion);
+                    } else {
+                        if (error instanceof CancellationException) {
+                            aiMetrics.recordCancelled(operation, sample);
+                        } else {
+                            aiMetrics.recordError(operation, sample, error);
+                        }
+                        result.completeExceptionally(error);
+                    }
+                });
+                CompletableFuture<AnthropicAsyncClient.Completion> request = call;
+                result.whenComplete((completion, error) -> request.cancel(true));
+            });
+            result.whenComplete((completion, error) -> admission.cancel(false));
+            return result;
+        });
+    }
+
+    /**
+     * Streams the completion as the model produces it. Cancelling the subscription cancels the
+     * upstream model call; a fully received completion is added to the response cache. While the
+     * circuit is open the stream fails at once with {@link AIUnavailableException}.
+     */
+    public Flux<String> streamResponse(AIOperation operation, String input) {
+        if (operation == AIOperation.SUMMARIZE) {
+            summarizer.checkLength(input);
+        }
+        return Flux.defer(() -> {
+            PreparedPrompt prompt = promptBudget.prepare(operation, input);
+            String cached = responseCache.getIfPresent(operation, input);
+            if (cached != null) {
+                recordUsage(operation, prompt, true, new TokenUsage());
+                return Flux.just(cached);
+            }
+            // The permit is held for the whole stream and released on completion, error or cancel
+            return resilience.stream(operation, () -> Flux.usingWhen(Mono.fromFuture(concurrencyLimiter::acquire),
+                    permit -> streamModel(operation, input, prompt),
+                    permit -> Mono.fromRunnable(permit::close)));
+        });
+    }
+
+    private Flux<String> streamModel(AIOperation operation, String input, PreparedPrompt preparedPrompt) {
+        StringBuilder completion = new StringBuilder();
+        AtomicReference<ChatResponse> lastResponse = new AtomicReference<>();
+        Timer.Sample sample = aiMetrics.start();
+        Prompt prompt = new Prompt(List.of(new UserMessage(preparedPrompt.text())));
+        return anthropicChatModel.stream(prompt)
+                .doOnNext(lastResponse::set)
+                .map(response -> response.getResult().getOutput().getContent())
+                .filter(token -> token != null && !token.isEmpty())
+                .doOnNext(completion::append)
+                .doOnComplete(() -> {
+                    aiMetrics.recordSuccess(operation, sample, lastResponse.get(), preparedPrompt.text(), completion);
+                    recordUsage(operation, preparedPrompt, false, new TokenUsage());
+                    responseCache.put(operation, input, completion.toString());
+                })
+                .doOnError(error -> aiMetrics.recordError(operation, sample, error))
+                .doOnCancel(() -> aiMetrics.recordCancelled(operation, sample));
+    }
+
+    public AICacheStats getCacheStats() {
+        return responseCache.stats();
+    }
+
+    public String generateResponse(AIOperation operation, String input) {
+        return generateResponse(operation, input, new TokenUsage());
+    }
+
+    private String generateSummary(String text, TokenUsage usage) {
+        return summarizer.summarize(text,
+                chunk -> generateResponse(AIOperation.SUMMARIZE, chunk, usage),
+                parts -> generateResponse(AIOperation.COMBINE_SUMMARIES, parts, usage));
+    }
+
+    private String generateResponse(AIOperation operation, String input, TokenUsage usage) {
+        PreparedPrompt prompt = promptBudget.prepare(operation, input);
+        AtomicBoolean called = new AtomicBoolean();
+        String result;
+        boolean served;
+        try {
+            result = responseCache.get(operation, input, () -> {
+                called.set(true);
+                // Blocking callers wait on the async client too, so a call abandoned at the deadline
+                // is cancelled and gives back its concurrency permit instead of pinning a thread
+                return microBatcher.accepts(operation, input)
+                        ? join(microBatcher.submit(operation, input, prompt.text(), text -> callModelAsync(operation, text)))
+                        : join(callModelAsync(operation, prompt.text()).thenApply(AnthropicAsyncClient.Completion::text));
+            });
+            served = !called.get();
+        } catch (RuntimeException e) {
+            result = fallback(operation, input, e, usage);
+            served = true;
+        }
+        recordUsage(operation, prompt, served, usage);
+        return result;
+    }
+
+    /**
+     * Answers a failed call with the last cached response for the same input, even if it has
+     * expired, or rethrows the failure when there is none.
+     */
+    private String fallback(AIOperation operation, String input, Throwable error, TokenUsage usage) {
+        String stale = responseCache.getStale(operation, input);
+        if (stale == null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(cause);
+        }
+        resilience.recordFallback(operation);
+        usage.markDegraded();
+        return stale;
+    }
+
+    // A cache hit or stale fallback sends nothing, so the whole prompt counts as saved
+    private void recordUsage(AIOperation operation, PreparedPrompt prompt, boolean cached, TokenUsage usage) {
+        int sent = cached ? 0 : prompt.promptTokens();
+        int saved = cached ? prompt.promptTokens() + prompt.savedTokens() : prompt.savedTokens();
+        usage.add(sent, saved, prompt.truncated());
+        aiMetrics.recordPromptTokens(operation, sent, saved);
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.aidemo.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the model cannot answer in time: the circuit breaker is open, or the operation's
+ * deadline passed before an attempt succeeded. Maps to 503 Service Unavailable.
+ */
+public class AIUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AIUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public AIUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Whole seconds for the {@code Retry-After} header, rounded up and at least one.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.aidemo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Calls the Anthropic text-completion API on Bedrock through the non-blocking SDK client.
+ * Token counts come from the {@code x-amzn-bedrock-*-token-count} response headers, or from a
+ * {@code usage} object in the body when the headers are missing.
+ */
+@Component
+public class AnthropicAsyncClient {
+
+    private final BedrockRuntimeAsyncClient bedrockRuntimeAsyncClient;
+    private final ObjectMapper objectMapper;
+    private final String model;
+    private final double temperature;
+    private final int maxTokens;
+
+    static final String STOP_MAX_TOKENS = "max_tokens";
+
+    /**
+     * The completion text, why generation stopped ({@code stop_sequence} or {@code max_tokens})
+     * and the token counts Bedrock reported for it; counts are null when unknown.
+     */
+    public record Completion(String text, String stopReason, Long promptTokens, Long completionTokens) {
+
+        public boolean truncated() {
+            return STOP_MAX_TOKENS.equals(stopReason);
+        }
+    }
+
+    public AnthropicAsyncClient(BedrockRuntimeAsyncClient bedrockRuntimeAsyncClient,
+                                ObjectMapper objectMapper,
+                                @Value("${spring.ai.bedrock.anthropic.claude.model:anthropic.claude-v2}") String model,
+                                @Value("${spring.ai.bedrock.anthropic.claude.temperature:0.7}") double temperature,
+                                @Value("${spring.ai.bedrock.anthropic.claude.max-tokens:500}") int maxTokens) {
+        this.bedrockRuntimeAsyncClient = bedrockRuntimeAsyncClient;
+        this.objectMapper = objectMapper;
+        this.model = model;
+        this.temperature = temperature;
+        this.maxTokens = maxTokens;
+    }
+
+    public CompletableFuture<Completion> complete(String message) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("prompt", "\n\nHuman: " + message + "\n\nAssistant:")
+                .put("max_tokens_to_sample", maxTokens)
+                .put("temperature", temperature);
+        InvokeModelRequest request = InvokeModelRequest.builder()
+                .modelId(model)
+                .contentType("application/json")
+                .accept("application/json")
+                .body(SdkBytes.fromUtf8String(body.toString()))
+                .build();
+
+        return bedrockRuntimeAsyncClient.invokeModel(request).thenApply(this::completion);
+    }
+
+    private Completion completion(InvokeModelResponse response) {
+        try {
+            JsonNode json = objectMapper.readTree(response.body().asUtf8String());
+            JsonNode usage = json.path("usage");
+            return new Completion(json.path("completion").asText(), json.path("stop_reason").asText(null),
+                    tokens(response, "x-amzn-bedrock-input-token-count", usage.path("input_tokens")),
+                    tokens(response, "x-amzn-bedrock-output-token-count", usage.path("output_tokens")));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Long tokens(InvokeModelResponse response, String header, JsonNode bodyValue) {
+        if (response.sdkHttpResponse() != null) {
+            String value = response.sdkHttpResponse().firstMatchingHeader(header).orElse(null);
+            if (value != null) {
+                try {
+                    return Long.parseLong(value.strip());
+                } catch (NumberFormatException e) {
+                    // Fall through to the body
+                }
+            }
+        }
+        return bodyValue.isIntegralNumber() ? bodyValue.asLong() : null;
+    }
+}
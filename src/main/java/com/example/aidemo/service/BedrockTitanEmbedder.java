@@ -0,0 +1,61 @@
+package com.example.aidemo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Embeds text with an Amazon Titan embedding model on Bedrock.
+ */
+public class BedrockTitanEmbedder implements NoteEmbedder {
+
+    private final BedrockRuntimeClient bedrockRuntimeClient;
+    private final ObjectMapper objectMapper;
+    private final String model;
+    private final int dimensions;
+
+    public BedrockTitanEmbedder(BedrockRuntimeClient bedrockRuntimeClient, ObjectMapper objectMapper,
+                                String model, int dimensions) {
+        this.bedrockRuntimeClient = bedrockRuntimeClient;
+        this.objectMapper = objectMapper;
+        this.model = model;
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        String body = objectMapper.createObjectNode().put("inputText", text == null ? "" : text).toString();
+        InvokeModelRequest request = InvokeModelRequest.builder()
+                .modelId(model)
+                .contentType("application/json")
+                .accept("application/json")
+                .body(SdkBytes.fromUtf8String(body))
+                .build();
+        String response = bedrockRuntimeClient.invokeModel(request).body().asUtf8String();
+
+        try {
+            JsonNode embedding = objectMapper.readTree(response).path("embedding");
+            if (embedding.size() != dimensions) {
+                throw new IllegalStateException("Expected " + dimensions + " dimensions from " + model
+                        + " but got " + embedding.size());
+            }
+            float[] vector = new float[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = (float) embedding.get(i).asDouble();
+            }
+            return HashingNoteEmbedder.normalize(vector);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.aidemo.service;
+
+import java.util.List;
+
+/**
+ * Deterministic local embedder using signed feature hashing of words and word bigrams.
+ * Needs no model or network, which makes it the default for tests and offline runs.
+ */
+public class HashingNoteEmbedder implements NoteEmbedder {
+
+    private final int dimensions;
+
+    public HashingNoteEmbedder(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        List<String> tokens = NoteSearchIndex.tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            addFeature(vector, tokens.get(i), 1.0f);
+            if (i > 0) {
+                addFeature(vector, tokens.get(i - 1) + ' ' + tokens.get(i), 0.5f);
+            }
+        }
+        return normalize(vector);
+    }
+
+    private void addFeature(float[] vector, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        vector[Math.floorMod(hash, dimensions)] += (hash & 0x80000000) == 0 ? weight : -weight;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+}
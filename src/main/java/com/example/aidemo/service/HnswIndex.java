@@ -0,0 +1,430 @@
+package com.example.aidemo.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest-neighbour search over
+ * unit-length vectors (similarity is the dot product). Removed or replaced entries stay in
+ * the graph for navigation and are filtered out of results until {@link #compact()} rebuilds the
+ * graph from the live entries. Each entry carries a caller-defined stamp, such as a hash of the
+ * text it was embedded from, so a persisted index can be checked against its source.
+ */
+public class HnswIndex {
+
+    private static final int FILE_MAGIC = 0x484e5357;
+    private static final int FILE_VERSION = 2;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> liveNodes = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deleted;
+
+    public HnswIndex(int dimensions, int m, int efConstruction) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    public record Match(long id, float similarity) {
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveNodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return liveNodes.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether {@code id} is live and was added with {@code stamp}.
+     */
+    public boolean contains(long id, long stamp) {
+        lock.readLock().lock();
+        try {
+            Integer nodeIndex = liveNodes.get(id);
+            return nodeIndex != null && nodes.get(nodeIndex).stamp == stamp;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Share of graph nodes that are removed or replaced entries.
+     */
+    public double deletedFraction() {
+        lock.readLock().lock();
+        try {
+            return nodes.isEmpty() ? 0 : (double) deleted / nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long id, float[] vector) {
+        add(id, 0, vector);
+    }
+
+    public void add(long id, long stamp, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            markDeleted(liveNodes.remove(id));
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            Node node = new Node(id, stamp, vector.clone(), level, m, maxM0);
+            int nodeIndex = nodes.size();
+            nodes.add(node);
+            liveNodes.put(id, nodeIndex);
+
+            if (entryPoint < 0) {
+                entryPoint = nodeIndex;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > level; layer--) {
+                current = greedyClosest(vector, current, layer);
+            }
+            for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+                List<Candidate> candidates = searchLayer(vector, current, efConstruction, layer);
+                int maxNeighbours = layer == 0 ? maxM0 : m;
+                for (int i = 0; i < Math.min(m, candidates.size()); i++) {
+                    int neighbour = candidates.get(i).node();
+                    node.addNeighbour(layer, neighbour);
+                    connect(neighbour, nodeIndex, layer, maxNeighbours);
+                }
+                current = candidates.get(0).node();
+            }
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = nodeIndex;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            markDeleted(liveNodes.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every live entry whose id is not in {@code ids}; returns how many were removed.
+     */
+    public int retainAll(Set<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (Iterator<Map.Entry<Long, Integer>> it = liveNodes.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Integer> entry = it.next();
+                if (!ids.contains(entry.getKey())) {
+                    it.remove();
+                    markDeleted(entry.getValue());
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a new index holding only the live entries, so removed and replaced entries no
+     * longer cost memory, file size or search effort. Vectors are copied, not re-embedded.
+     */
+    public HnswIndex compact() {
+        List<Node> live;
+        lock.readLock().lock();
+        try {
+            live = nodes.stream().filter(node -> !node.deleted).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        HnswIndex compacted = new HnswIndex(dimensions, m, efConstruction);
+        for (Node node : live) {
+            compacted.add(node.id, node.stamp, node.vector);
+        }
+        return compacted;
+    }
+
+    /**
+     * Returns up to {@code k} live entries, most similar first.
+     */
+    public List<Match> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > 0; layer--) {
+                current = greedyClosest(query, current, layer);
+            }
+            // Widen the beam by the share of dead nodes so it still holds about k live ones
+            int beam = (int) Math.min(nodes.size(), (long) Math.max(ef, k) * nodes.size() / Math.max(1, liveNodes.size()));
+            List<Match> matches = new ArrayList<>(k);
+            for (Candidate candidate : searchLayer(query, current, Math.max(beam, k), 0)) {
+                Node node = nodes.get(candidate.node());
+                if (!node.deleted) {
+                    matches.add(new Match(node.id, 1 - candidate.distance()));
+                    if (matches.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void save(OutputStream output) throws IOException {
+        lock.readLock().lock();
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(nodes.size());
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (Node node : nodes) {
+                out.writeLong(node.id);
+                out.writeLong(node.stamp);
+                out.writeBoolean(node.deleted);
+                out.writeInt(node.level);
+                for (float value : node.vector) {
+                    out.writeFloat(value);
+                }
+                for (int layer = 0; layer <= node.level; layer++) {
+                    out.writeInt(node.counts[layer]);
+                    for (int i = 0; i < node.counts[layer]; i++) {
+                        out.writeInt(node.neighbours[layer][i]);
+                    }
+                }
+            }
+            out.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+            throw new IOException("Not a vector index file or unsupported version");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt());
+        int count = in.readInt();
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        for (int n = 0; n < count; n++) {
+            long id = in.readLong();
+            long stamp = in.readLong();
+            boolean deleted = in.readBoolean();
+            int level = in.readInt();
+            float[] vector = new float[index.dimensions];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = in.readFloat();
+            }
+            Node node = new Node(id, stamp, vector, level, index.m, index.maxM0);
+            node.deleted = deleted;
+            for (int layer = 0; layer <= level; layer++) {
+                int neighbourCount = in.readInt();
+                for (int i = 0; i < neighbourCount; i++) {
+                    node.addNeighbour(layer, in.readInt());
+                }
+            }
+            index.nodes.add(node);
+            if (deleted) {
+                index.deleted++;
+            } else {
+                index.liveNodes.put(id, n);
+            }
+        }
+        return index;
+    }
+
+    private void markDeleted(Integer nodeIndex) {
+        if (nodeIndex != null) {
+            nodes.get(nodeIndex).deleted = true;
+            deleted++;
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.counts[layer]; i++) {
+                int neighbour = node.neighbours[layer][i];
+                float neighbourDistance = distance(query, nodes.get(neighbour).vector);
+                if (neighbourDistance < currentDistance) {
+                    current = neighbour;
+                    currentDistance = neighbourDistance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer; returns up to {@code ef} candidates, closest first.
+     */
+    private List<Candidate> searchLayer(float[] query, int entry, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> results = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distance).reversed());
+
+        Candidate start = new Candidate(entry, distance(query, nodes.get(entry).vector));
+        visited.set(entry);
+        frontier.add(start);
+        results.add(start);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.distance() > results.peek().distance()) {
+                break;
+            }
+            Node node = nodes.get(closest.node());
+            for (int i = 0; i < node.counts[layer]; i++) {
+                int neighbour = node.neighbours[layer][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float neighbourDistance = distance(query, nodes.get(neighbour).vector);
+                if (results.size() < ef || neighbourDistance < results.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbour, neighbourDistance);
+                    frontier.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        Candidate[] ordered = results.toArray(new Candidate[0]);
+        Arrays.sort(ordered, Comparator.comparingDouble(Candidate::distance));
+        return Arrays.asList(ordered);
+    }
+
+    private void connect(int from, int to, int layer, int maxNeighbours) {
+        Node node = nodes.get(from);
+        if (node.counts[layer] < maxNeighbours) {
+            node.addNeighbour(layer, to);
+            return;
+        }
+        // Full: replace the farthest neighbour if the new one is closer
+        int farthest = -1;
+        float farthestDistance = distance(node.vector, nodes.get(to).vector);
+        for (int i = 0; i < node.counts[layer]; i++) {
+            float neighbourDistance = distance(node.vector, nodes.get(node.neighbours[layer][i]).vector);
+            if (neighbourDistance > farthestDistance) {
+                farthest = i;
+                farthestDistance = neighbourDistance;
+            }
+        }
+        if (farthest >= 0) {
+            node.neighbours[layer][farthest] = to;
+        }
+    }
+
+    private static float distance(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    private static final class Node {
+        final long id;
+        final long stamp;
+        final float[] vector;
+        final int level;
+        final int[][] neighbours;
+        final int[] counts;
+        boolean deleted;
+
+        Node(long id, long stamp, float[] vector, int level, int m, int maxM0) {
+            this.id = id;
+            this.stamp = stamp;
+            this.vector = vector;
+            this.level = level;
+            this.neighbours = new int[level + 1][];
+            this.counts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                neighbours[layer] = new int[layer == 0 ? maxM0 : m];
+            }
+        }
+
+        void addNeighbour(int layer, int neighbour) {
+            neighbours[layer][counts[layer]++] = neighbour;
+        }
+    }
+}
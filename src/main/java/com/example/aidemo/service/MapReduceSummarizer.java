@@ -0,0 +1,156 @@
+package com.example.aidemo.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Summarizes text that does not fit a single prompt: the text is split into chunks that are
+ * summarized in parallel (map), and the partial summaries are combined group by group until a
+ * single summary remains (reduce). At most {@code max-parallel-chunks} calls are in flight per
+ * summary, and input over {@code max-input-length} characters is rejected.
+ */
+@Component
+public class MapReduceSummarizer {
+
+    static final String PART_SEPARATOR = "\n\n---\n\n";
+
+    private final ExecutorService aiExecutor;
+    private final int chunkTokens;
+    private final int maxParallelChunks;
+    private final int maxInputLength;
+
+    public MapReduceSummarizer(@Qualifier("aiExecutor") ExecutorService aiExecutor,
+                               @Value("${ai.summary.chunk-tokens:2000}") int chunkTokens,
+                               @Value("${ai.summary.max-parallel-chunks:8}") int maxParallelChunks,
+                               @Value("${ai.summary.max-input-length:100000}") int maxInputLength) {
+        if (chunkTokens < 1 || maxParallelChunks < 1 || maxInputLength < 1) {
+            throw new IllegalArgumentException(
+                    "ai.summary.chunk-tokens, max-parallel-chunks and max-input-length must be positive");
+        }
+        this.aiExecutor = aiExecutor;
+        this.chunkTokens = chunkTokens;
+        this.maxParallelChunks = maxParallelChunks;
+        this.maxInputLength = maxInputLength;
+    }
+
+    /**
+     * Rejects text too long to summarize with {@link IllegalArgumentException}.
+     */
+    public void checkLength(String text) {
+        if (text != null && text.length() > maxInputLength) {
+            throw new IllegalArgumentException("text must be at most " + maxInputLength + " characters");
+        }
+    }
+
+    public boolean needsChunking(String text) {
+        return TokenEstimator.estimate(text) > chunkTokens;
+    }
+
+    /**
+     * @param summarize summarizes one chunk of the original text
+     * @param combine   merges partial summaries joined by {@link #PART_SEPARATOR} into one summary
+     */
+    public String summarize(String text, Function<String, String> summarize, Function<String, String> combine) {
+        checkLength(text);
+        if (!needsChunking(text)) {
+            return summarize.apply(text);
+        }
+        List<String> partials = mapAll(TextChunker.split(text, chunkTokens), summarize);
+        while (partials.size() > 1) {
+            List<String> groups = group(partials);
+            if (groups.size() == partials.size()) {
+                // Partial summaries are individually at the budget; combine pairwise so every round shrinks.
+                groups = pairs(partials);
+            }
+            partials = mapAll(groups, combine);
+        }
+        return partials.get(0);
+    }
+
+    public CompletableFuture<String> summarizeAsync(String text, Function<String, String> summarize,
+                                                    Function<String, String> combine) {
+        return CompletableFuture.supplyAsync(() -> summarize(text, summarize, combine), aiExecutor);
+    }
+
+    private List<String> mapAll(List<String> inputs, Function<String, String> call) {
+        if (inputs.size() == 1) {
+            return List.of(call.apply(inputs.get(0)));
+        }
+        // Waiting for a permit happens here rather than in the executor, so a long text never
+        // holds more than maxParallelChunks threads; a failed call stops further submissions
+        Semaphore permits = new Semaphore(maxParallelChunks);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<String>> futures = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while summarizing");
+            }
+            if (failed.get()) {
+                permits.release();
+                break;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(input), aiExecutor)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            failed.set(true);
+                        }
+                        permits.release();
+                    }));
+        }
+        List<String> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<String> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private List<String> group(List<String> partials) {
+        List<String> groups = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String partial : partials) {
+            if (current.length() > 0
+                    && TokenEstimator.estimate(current) + TokenEstimator.estimate(PART_SEPARATOR + partial) > chunkTokens) {
+                groups.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append(PART_SEPARATOR);
+            }
+            current.append(partial);
+        }
+        groups.add(current.toString());
+        return groups;
+    }
+
+    private static List<String> pairs(List<String> partials) {
+        List<String> groups = new ArrayList<>();
+        for (int i = 0; i < partials.size(); i += 2) {
+            groups.add(i + 1 < partials.size()
+                    ? partials.get(i) + PART_SEPARATOR + partials.get(i + 1)
+                    : partials.get(i));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.Note;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory caches in front of note reads: notes by id, and the ranked id lists
+ * returned by searches. A write evicts exactly the note it touched; because any write can
+ * change search rankings, it also drops all cached search results, which are cheap to rebuild
+ * from the in-memory indexes. Hit, miss and eviction counts are published as {@code cache.*}
+ * meters tagged {@code cache=notes} and {@code cache=noteSearch}.
+ * <p>
+ * A read that loads from the database can race a write that commits and evicts meanwhile.
+ * Loads therefore only fill the cache if no write happened since they started, and a note
+ * is never replaced by one with an older version.
+ */
+@Component
+public class NoteCache {
+
+    private final Cache<Long, Note> notes;
+    private final Cache<SearchKey, List<Long>> searches;
+    private final boolean searchCacheEnabled;
+    private final int warmupSize;
+    // Bumped before every eviction, so loads can tell that their result may be stale
+    private final AtomicLong generation = new AtomicLong();
+
+    public NoteCache(MeterRegistry meterRegistry,
+                     @Value("${notes.cache.max-size:10000}") long maxSize,
+                     @Value("${notes.cache.search-max-size:1000}") long searchMaxSize,
+                     @Value("${notes.cache.ttl:10m}") Duration ttl,
+                     @Value("${notes.cache.warmup-size:1000}") int warmupSize) {
+        // The TTL only bounds staleness from writes that bypass NoteService, e.g. direct SQL
+        this.notes = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().<Long, Note>build(),
+                "notes");
+        this.searches = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().maximumSize(searchMaxSize).expireAfterWrite(ttl).recordStats()
+                        .<SearchKey, List<Long>>build(),
+                "noteSearch");
+        this.searchCacheEnabled = searchMaxSize > 0;
+        this.warmupSize = (int) Math.min(warmupSize, maxSize);
+    }
+
+    public Optional<Note> getNote(Long id, Function<Long, Optional<Note>> loader) {
+        // The load runs inside the entry's compute, so an eviction waits for it and then removes it
+        return Optional.ofNullable(notes.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Returns the notes for the given ids in the same order, loading only the ids that are not
+     * cached. Ids that the loader does not return are left out.
+     */
+    public List<Note> getNotes(List<Long> ids, Function<List<Long>, Collection<Note>> loader) {
+        Map<Long, Note> found = new HashMap<>(notes.getAllPresent(ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long loadedAt = generation.get();
+            for (Note note : loader.apply(missing)) {
+                found.put(note.getId(), note);
+                notes.asMap().compute(note.getId(), (id, cached) -> cached != null
+                        ? newer(cached, note)
+                        : generation.get() == loadedAt ? note : null);
+            }
+        }
+        List<Note> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Note note = found.get(id);
+            if (note != null) {
+                result.add(note);
+            }
+        }
+        return result;
+    }
+
+    public List<Long> getSearchResults(String type, String query, int limit, Supplier<List<Long>> search) {
+        if (!searchCacheEnabled) {
+            return List.copyOf(search.get());
+        }
+        SearchKey key = new SearchKey(type, query, limit);
+        List<Long> cached = searches.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // invalidateAll() does not discard a compute in flight, so the result is only kept if no
+        // write happened while the search ran
+        long searchedAt = generation.get();
+        List<Long> result = List.copyOf(search.get());
+        searches.asMap().compute(key, (k, existing) -> generation.get() == searchedAt ? result : existing);
+        return result;
+    }
+
+    public Note getIfPresent(Long id) {
+        return notes.getIfPresent(id);
+    }
+
+    public void put(Note note) {
+        generation.incrementAndGet();
+        notes.asMap().merge(note.getId(), note, NoteCache::newer);
+        changed();
+    }
+
+    /**
+     * Number of notes to preload on startup.
+     */
+    public int getWarmupSize() {
+        return warmupSize;
+    }
+
+    // Startup preload: the collection has not changed, so searches are kept
+    public void warm(Note note) {
+        // Once writes have started, a preloaded row may predate one of them
+        notes.asMap().compute(note.getId(), (id, cached) -> cached != null
+                ? newer(cached, note)
+                : generation.get() == 0 ? note : null);
+    }
+
+    public void evict(Long id) {
+        generation.incrementAndGet();
+        notes.invalidate(id);
+        changed();
+    }
+
+    public void invalidateSearches() {
+        generation.incrementAndGet();
+        changed();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        notes.invalidateAll();
+        changed();
+    }
+
+    private void changed() {
+        searches.invalidateAll();
+    }
+
+    // Entries without a version (never saved through JPA) are treated as the latest
+    private static Note newer(Note cached, Note candidate) {
+        if (cached.getVersion() == null || candidate.getVersion() == null) {
+            return candidate;
+        }
+        return candidate.getVersion() >= cached.getVersion() ? candidate : cached;
+    }
+
+    private record SearchKey(String type, String query, int limit) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.NoteChange;
+import com.example.aidemo.model.NoteChangeType;
+import com.example.aidemo.repository.NoteChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only log of note changes, written in the same transaction as the note itself.
+ * <p>
+ * Change ids are allocated in order but transactions may commit out of order, so a reader could
+ * see change 11 before change 10 commits and move its cursor past 10 for good. Ids of changes
+ * whose transaction is still open are therefore tracked, and reads stop just below the oldest
+ * of them. That tracking lives in this process, so the feed needs every write to the database to
+ * come from this one instance; the prod profile's H2 file lock keeps a second process out.
+ */
+@Component
+public class NoteChangeFeed {
+
+    private final NoteChangeRepository noteChangeRepository;
+    private final ExecutorService notifier;
+    private final NavigableSet<Long> pending = new TreeSet<>();
+    private CompletableFuture<Void> nextCommit = new CompletableFuture<>();
+
+    public NoteChangeFeed(NoteChangeRepository noteChangeRepository) {
+        this.noteChangeRepository = noteChangeRepository;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("note-changes-");
+        threadFactory.setDaemon(true);
+        this.notifier = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long noteId, NoteChangeType type) {
+        recordAll(List.of(noteId), type);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Long> noteIds, NoteChangeType type) {
+        List<Long> changeIds = new ArrayList<>(noteIds.size());
+        // Registered first so the ids are released even if a save below fails
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                completed(changeIds);
+            }
+        });
+        Date now = new Date();
+        // Allocating and registering an id atomically keeps visibleUpTo() from passing it
+        synchronized (this) {
+            for (Long noteId : noteIds) {
+                NoteChange change = noteChangeRepository.save(
+                        NoteChange.builder().noteId(noteId).type(type).changedAt(now).build());
+                changeIds.add(change.getId());
+                pending.add(change.getId());
+            }
+        }
+    }
+
+    /**
+     * Committed changes after {@code after}, oldest first; returns up to {@code limit} + 1 rows
+     * so callers can tell whether more are waiting.
+     */
+    public List<NoteChange> read(long after, int limit) {
+        return noteChangeRepository.findRange(after, visibleUpTo(), PageRequest.ofSize(limit + 1));
+    }
+
+    public long latestId() {
+        return noteChangeRepository.findLatestId(visibleUpTo());
+    }
+
+    /**
+     * The newest committed change, which identifies the current state of the whole collection.
+     * It is read from the database, so it also survives restarts.
+     */
+    public Optional<NoteChange> latest() {
+        return noteChangeRepository.findFirstByIdLessThanEqualOrderByIdDesc(visibleUpTo());
+    }
+
+    /**
+     * Completes, on a feed thread, after the next change commits or when the timeout elapses.
+     */
+    public CompletableFuture<Void> awaitCommit(Duration timeout) {
+        CompletableFuture<Void> signal;
+        synchronized (this) {
+            signal = nextCommit;
+        }
+        return signal.copy()
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> null, notifier);
+    }
+
+    synchronized long visibleUpTo() {
+        return pending.isEmpty() ? Long.MAX_VALUE : pending.first() - 1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+
+    // Signalled on rollback too: releasing an id can expose later changes that already committed
+    private void completed(List<Long> changeIds) {
+        CompletableFuture<Void> signal;
+        synchronized (this) {
+            changeIds.forEach(pending::remove);
+            signal = nextCommit;
+            nextCommit = new CompletableFuture<>();
+        }
+        signal.complete(null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.aidemo.service;
+
+/**
+ * Turns text into a unit-length embedding vector for semantic search.
+ */
+public interface NoteEmbedder {
+
+    int dimensions();
+
+    float[] embed(String text);
+}
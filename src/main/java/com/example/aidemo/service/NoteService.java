@@ -1,59 +1,405 @@
 package com.example.aidemo.service;
 
+import com.example.aidemo.dto.NoteChangeEntry;
+import com.example.aidemo.dto.NoteChanges;
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.dto.NotePage;
+import com.example.aidemo.dto.NotePatch;
+import com.example.aidemo.dto.NoteSummary;
+import com.example.aidemo.dto.NoteVersion;
 import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChange;
+import com.example.aidemo.model.NoteChangeType;
 import com.example.aidemo.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class NoteService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_SEMANTIC_RESULTS = 100;
+    public static final int MAX_CHANGES = 1000;
+
     private final NoteRepository noteRepository;
+    private final NoteSearchIndex noteSearchIndex;
+    private final NoteVectorIndex noteVectorIndex;
+    private final EntityManager entityManager;
+    private final NoteSummaryWorker noteSummaryWorker;
+    private final NoteCache noteCache;
+    private final NoteChangeFeed noteChangeFeed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        long start = System.nanoTime();
+        noteSearchIndex.clear();
+        noteVectorIndex.load();
+        int warmupSize = noteCache.getWarmupSize();
+        long[] count = {0};
+        Set<Long> ids = new HashSet<>();
+        List<Long> stale = new ArrayList<>();
+        // Notes stream newest first, so the first ones read are the ones most likely to be requested
+        streamNotes(note -> {
+            noteSearchIndex.index(note);
+            ids.add(note.getId());
+            // Only notes that are new or edited since the index file was saved need embedding
+            if (!noteVectorIndex.isCurrent(note)) {
+                stale.add(note.getId());
+            }
+            if (count[0]++ < warmupSize) {
+                noteCache.warm(note);
+            }
+        });
+        int dropped = noteVectorIndex.retainAll(ids);
+        // Embedding runs in the background after the cursor is closed, so startup does not wait on the embedder
+        noteVectorIndex.indexAllAsync(stale, noteRepository::findAllById);
+        noteVectorIndex.saveAsync();
+        log.info("Indexed {} notes ({} queued for embedding, {} stale vectors dropped) and preloaded {} into the cache in {} ms",
+                count[0], stale.size(), dropped, Math.min(count[0], warmupSize), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<NoteListItem> getAllNotes() {
+        return noteRepository.findAllItems();
+    }
+
+    public NotePage getNotesPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists without a count query
+        PageRequest pageRequest = PageRequest.ofSize(pageSize + 1);
+
+        List<NoteListItem> notes;
+        if (cursor == null || cursor.isBlank()) {
+            notes = noteRepository.findFirstPage(pageRequest);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            notes = noteRepository.findPageAfter(position.updatedAt(), position.id(), pageRequest);
+        }
 
-    public List<Note> getAllNotes() {
-        return noteRepository.findAll();
+        if (notes.size() <= pageSize) {
+            return new NotePage(notes, null);
+        }
+        List<NoteListItem> items = notes.subList(0, pageSize);
+        return new NotePage(items, encodeCursor(items.get(pageSize - 1)));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamNotes(Consumer<Note> consumer) {
+        try (Stream<Note> notes = noteRepository.streamAll()) {
+            notes.forEach(note -> {
+                consumer.accept(note);
+                // Keep the persistence context empty so memory stays flat for any table size
+                entityManager.detach(note);
+            });
+        }
     }
 
     public Note getNoteById(Long id) {
-        return noteRepository.findById(id)
+        return noteCache.getNote(id, noteRepository::findById)
+                .orElseThrow(() -> new EntityNotFoundException("Note not found with id: " + id));
+    }
+
+    /**
+     * Answered from the cache or with a query for the timestamps only, so a conditional GET for
+     * an unchanged note never loads its body.
+     */
+    public NoteVersion getNoteVersion(Long id) {
+        Note cached = noteCache.getIfPresent(id);
+        if (cached != null) {
+            return NoteVersion.of(cached);
+        }
+        return noteRepository.findVersionById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Note not found with id: " + id));
     }
 
+    /**
+     * The newest committed note change, or empty if notes were never changed through the API.
+     */
+    public Optional<NoteChange> getLatestChange() {
+        return noteChangeFeed.latest();
+    }
+
+    /**
+     * Returns the stored summary without calling the model. A missing or outdated summary is
+     * reported as stale and a background refresh is scheduled.
+     */
+    public NoteSummary getNoteSummary(Long id) {
+        Note note = getNoteById(id);
+        boolean current = NoteSummaryWorker.isCurrent(note);
+        if (!current) {
+            noteSummaryWorker.schedule(note);
+        }
+        return new NoteSummary(note.getId(), note.getSummary(), note.getSummarizedAt(), !current);
+    }
+
+    /**
+     * Notes whose title starts with {@code prefix}, ignoring case, in title order. Served from
+     * the index on the lower-cased title.
+     */
+    public List<Note> findByTitlePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Title prefix is required");
+        }
+        String pattern = prefix.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return noteRepository.findByTitlePrefix(pattern, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
     public List<Note> searchNotes(String query) {
-        List<Note> titleResults = noteRepository.findByTitleContainingIgnoreCase(query);
-        List<Note> contentResults = noteRepository.findByContentContainingIgnoreCase(query);
-        
-        // Combine results and remove duplicates
-        titleResults.removeAll(contentResults);
-        titleResults.addAll(contentResults);
-        
-        return titleResults;
+        return searchNotes(query, DEFAULT_SEARCH_LIMIT);
     }
 
+    public List<Note> searchNotes(String query, int limit) {
+        return findAllInRankOrder(noteCache.getSearchResults("keyword", query, limit,
+                () -> noteSearchIndex.search(query, limit)));
+    }
+
+    public List<Note> semanticSearch(String query, int k) {
+        int limit = Math.max(1, Math.min(k, MAX_SEMANTIC_RESULTS));
+        return findAllInRankOrder(noteCache.getSearchResults("semantic", query, limit,
+                () -> noteVectorIndex.search(query, limit)));
+    }
+
+    /**
+     * Returns the changes after {@code since}, collapsed to the latest change per note. Without a
+     * cursor only the current cursor is returned, to be used after a full load of the notes.
+     */
+    public NoteChanges getChanges(String since, int limit) {
+        if (since == null || since.isBlank()) {
+            return new NoteChanges(List.of(), String.valueOf(noteChangeFeed.latestId()), false);
+        }
+        long after = parseChangeCursor(since);
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES));
+        List<NoteChange> changes = noteChangeFeed.read(after, pageSize);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+        if (changes.isEmpty()) {
+            return new NoteChanges(List.of(), since, false);
+        }
+
+        Map<Long, NoteChange> latest = new LinkedHashMap<>();
+        for (NoteChange change : changes) {
+            // Re-insert so notes are ordered by their latest change
+            latest.remove(change.getNoteId());
+            latest.put(change.getNoteId(), change);
+        }
+        List<Long> liveIds = latest.values().stream()
+                .filter(change -> change.getType() != NoteChangeType.DELETED)
+                .map(NoteChange::getNoteId)
+                .toList();
+        Map<Long, Note> notes = liveIds.isEmpty() ? Map.of()
+                : noteCache.getNotes(liveIds, noteRepository::findAllById).stream()
+                        .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        List<NoteChangeEntry> entries = new ArrayList<>(latest.size());
+        for (NoteChange change : latest.values()) {
+            Note note = notes.get(change.getNoteId());
+            // A note deleted after this page was read is reported as deleted; its tombstone follows
+            NoteChangeType type = note == null ? NoteChangeType.DELETED : change.getType();
+            entries.add(new NoteChangeEntry(change.getId(), change.getNoteId(), type, change.getChangedAt(), note));
+        }
+        String cursor = String.valueOf(changes.get(changes.size() - 1).getId());
+        return new NoteChanges(entries, cursor, hasMore);
+    }
+
+    /**
+     * Long-poll variant of {@link #getChanges}: when nothing has changed since the cursor, waits
+     * up to {@code wait} for the next commit instead of answering empty.
+     */
+    public CompletableFuture<NoteChanges> awaitChanges(String since, int limit, Duration wait) {
+        if (since == null || since.isBlank() || wait.isZero()) {
+            return CompletableFuture.completedFuture(getChanges(since, limit));
+        }
+        parseChangeCursor(since);
+        // Subscribe before reading so a commit between the read and the wait is not missed
+        CompletableFuture<Void> nextCommit = noteChangeFeed.awaitCommit(wait);
+        NoteChanges changes = getChanges(since, limit);
+        if (!changes.getChanges().isEmpty()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+        return nextCommit.thenApply(ignored -> getChanges(since, limit));
+    }
+
+    @Transactional
     public Note createNote(Note note) {
         Date now = new Date();
+        note.setVersion(null);
         note.setCreatedAt(now);
         note.setUpdatedAt(now);
-        return noteRepository.save(note);
+        Note saved = noteRepository.save(note);
+        noteChangeFeed.record(saved.getId(), NoteChangeType.CREATED);
+        afterCommit(() -> {
+            noteSearchIndex.index(saved);
+            noteVectorIndex.indexAsync(saved);
+            noteCache.put(saved);
+            noteSummaryWorker.schedule(saved);
+        });
+        return saved;
     }
 
+    /**
+     * Replaces title and content in a single UPDATE. If {@code noteDetails} carries a version the
+     * update fails with {@link OptimisticLockingFailureException} when the note has moved on.
+     */
+    @Transactional
     public Note updateNote(Long id, Note noteDetails) {
-        Note note = getNoteById(id);
-        
-        note.setTitle(noteDetails.getTitle());
-        note.setContent(noteDetails.getContent());
-        note.setUpdatedAt(new Date());
-        
-        return noteRepository.save(note);
+        Date now = new Date();
+        int updated = noteRepository.updateNote(id, noteDetails.getTitle(), noteDetails.getContent(), now,
+                noteDetails.getVersion());
+        return afterUpdate(id, updated, noteDetails.getVersion(), now, note -> {
+            note.setTitle(noteDetails.getTitle());
+            note.setContent(noteDetails.getContent());
+        });
     }
 
+    /**
+     * Updates only the non-null fields of the patch in a single UPDATE, with the same version
+     * check as {@link #updateNote}.
+     */
+    @Transactional
+    public Note patchNote(Long id, NotePatch patch) {
+        if (patch.getTitle() != null && patch.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        Date now = new Date();
+        int updated = noteRepository.patchNote(id, patch.getTitle(), patch.getContent(), now, patch.getVersion());
+        return afterUpdate(id, updated, patch.getVersion(), now, note -> {
+            if (patch.getTitle() != null) {
+                note.setTitle(patch.getTitle());
+            }
+            if (patch.getContent() != null) {
+                note.setContent(patch.getContent());
+            }
+        });
+    }
+
+    @Transactional
     public void deleteNote(Long id) {
-        Note note = getNoteById(id);
-        noteRepository.delete(note);
+        if (noteRepository.deleteNoteById(id) == 0) {
+            throw new EntityNotFoundException("Note not found with id: " + id);
+        }
+        noteChangeFeed.record(id, NoteChangeType.DELETED);
+        afterCommit(() -> {
+            noteSearchIndex.remove(id);
+            noteVectorIndex.removeAsync(id);
+            noteCache.evict(id);
+        });
+    }
+
+    private Note afterUpdate(Long id, int updated, Long expectedVersion, Date updatedAt, Consumer<Note> changes) {
+        if (updated == 0) {
+            if (!noteRepository.existsById(id)) {
+                throw new EntityNotFoundException("Note not found with id: " + id);
+            }
+            throw new OptimisticLockingFailureException(
+                    "Note " + id + " was modified by someone else; expected version " + expectedVersion);
+        }
+        // A cached copy at the expected version is exactly the row the UPDATE started from, so the
+        // new state can be derived without reading it back
+        Note cached = noteCache.getIfPresent(id);
+        Note note;
+        if (cached != null && expectedVersion != null && expectedVersion.equals(cached.getVersion())) {
+            note = cached.toBuilder().updatedAt(updatedAt).version(expectedVersion + 1).build();
+            changes.accept(note);
+        } else {
+            note = noteRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Note not found with id: " + id));
+        }
+        noteChangeFeed.record(id, NoteChangeType.UPDATED);
+        afterCommit(() -> {
+            noteSearchIndex.index(note);
+            noteVectorIndex.indexAsync(note);
+            noteCache.put(note);
+            noteSummaryWorker.schedule(note);
+        });
+        return note;
+    }
+
+    /**
+     * Applies in-memory side effects of a write only once its transaction has committed, so a
+     * rollback leaves nothing behind in the indexes or the cache and readers never see the
+     * cache change before the database does. Runs immediately outside a transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private List<Note> findAllInRankOrder(List<Long> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        return noteCache.getNotes(rankedIds, noteRepository::findAllById);
+    }
+
+    private static String encodeCursor(NoteListItem item) {
+        String raw = item.getUpdatedAt().getTime() + ":" + item.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new CursorPosition(
+                    new Date(Long.parseLong(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static long parseChangeCursor(String since) {
+        try {
+            return Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + since);
+        }
+    }
+
+    private record CursorPosition(Date updatedAt, Long id) {
     }
-}
\ No newline at end of file
+}
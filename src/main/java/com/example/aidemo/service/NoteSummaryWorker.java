@@ -0,0 +1,132 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.Note;
+import com.example.aidemo.repository.NoteRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link Note#getSummary() stored summaries} up to date in the background. A refresh is
+ * debounced per note, so a burst of edits produces one model call, and is skipped when the
+ * note's content hash still matches the hash of the text that was last summarized. The AI
+ * service is injected lazily, so the note path does not build the model clients at startup.
+ */
+@Slf4j
+@Component
+public class NoteSummaryWorker {
+
+    private final NoteRepository noteRepository;
+    private final AIService aiService;
+    private final NoteCache noteCache;
+    private final boolean enabled;
+    private final Duration debounce;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Map<Long, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+
+    public NoteSummaryWorker(NoteRepository noteRepository,
+                             @Lazy AIService aiService,
+                             NoteCache noteCache,
+                             @Value("${notes.summary.enabled:true}") boolean enabled,
+                             @Value("${notes.summary.debounce:5s}") Duration debounce,
+                             @Value("${notes.summary.concurrency:2}") int concurrency) {
+        this.noteRepository = noteRepository;
+        this.aiService = aiService;
+        this.noteCache = noteCache;
+        this.enabled = enabled;
+        this.debounce = debounce;
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("note-summary-debounce-"));
+            this.workers = Executors.newFixedThreadPool(Math.max(1, concurrency), daemonThreads("note-summary-"));
+        } else {
+            this.scheduler = null;
+            this.workers = null;
+        }
+    }
+
+    /**
+     * Schedules a summary refresh for the note unless its stored summary is already current.
+     * Scheduling again within the debounce window postpones the refresh.
+     */
+    public void schedule(Note note) {
+        if (!enabled || note.getId() == null || isCurrent(note)) {
+            return;
+        }
+        pending.compute(note.getId(), (id, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return scheduler.schedule(() -> {
+                pending.remove(id);
+                workers.execute(() -> refresh(id));
+            }, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    public static boolean isCurrent(Note note) {
+        return note.getSummary() != null && contentHash(note).equals(note.getSummaryContentHash());
+    }
+
+    static String contentHash(Note note) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(summaryInput(note).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void refresh(Long id) {
+        Note note = noteRepository.findById(id).orElse(null);
+        if (note == null || isCurrent(note)) {
+            return;
+        }
+        try {
+            String summary = aiService.generateSummary(summaryInput(note));
+            if (noteRepository.updateSummary(id, summary, contentHash(note), new Date(), note.getVersion()) == 0) {
+                // Edited or deleted while summarizing; an edit schedules its own refresh
+                log.debug("Discarded summary of note {}: it changed while being summarized", id);
+                return;
+            }
+            noteCache.evict(id);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh summary of note {}", id, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            scheduler.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    private static String summaryInput(Note note) {
+        return note.getContent() == null ? note.getTitle() : note.getTitle() + "\n\n" + note.getContent();
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.NoteImportResult;
+import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChangeType;
+import com.example.aidemo.repository.NoteRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming bulk import and export of notes. Imports are written in chunked transactions
+ * so JDBC insert batching applies and memory stays bounded regardless of input size.
+ */
+@Slf4j
+@Service
+public class NoteTransferService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final NoteService noteService;
+    private final NoteRepository noteRepository;
+    private final NoteSearchIndex noteSearchIndex;
+    private final NoteVectorIndex noteVectorIndex;
+    private final NoteCache noteCache;
+    private final NoteChangeFeed noteChangeFeed;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public NoteTransferService(NoteService noteService,
+                               NoteRepository noteRepository,
+                               NoteSearchIndex noteSearchIndex,
+                               NoteVectorIndex noteVectorIndex,
+                               NoteCache noteCache,
+                               NoteChangeFeed noteChangeFeed,
+                               EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${notes.import.chunk-size:1000}") int chunkSize) {
+        this.noteService = noteService;
+        this.noteRepository = noteRepository;
+        this.noteSearchIndex = noteSearchIndex;
+        this.noteVectorIndex = noteVectorIndex;
+        this.noteCache = noteCache;
+        this.noteChangeFeed = noteChangeFeed;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public NoteImportResult importNotes(InputStream input, NoteFormat format) {
+        long start = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        List<Note> chunk = new ArrayList<>(chunkSize);
+        long record = 0;
+        long imported = 0;
+        long rejected = 0;
+        boolean completed = true;
+
+        try (NoteReader reader = openReader(input, format)) {
+            Note note;
+            while ((note = reader.next()) != null) {
+                record++;
+                String invalid = validate(note);
+                if (invalid != null) {
+                    rejected++;
+                    addError(errors, "Record " + record + ": " + invalid);
+                    continue;
+                }
+                chunk.add(note);
+                if (chunk.size() >= chunkSize) {
+                    imported += saveChunk(chunk);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // A chunk that failed to save was rolled back and cleared, so only a read failure leaves a tail
+            completed = false;
+            addError(errors, "Stopped after record " + record + ": " + e.getMessage());
+            log.debug("Note import stopped after record {}", record, e);
+        }
+        if (!chunk.isEmpty()) {
+            int tail = chunk.size();
+            try {
+                imported += saveChunk(chunk);
+            } catch (RuntimeException e) {
+                completed = false;
+                addError(errors, "Could not save the last " + tail + " records: " + e.getMessage());
+                log.debug("Could not save the last {} imported notes", tail, e);
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new NoteImportResult(imported, rejected, completed, elapsedMillis, errors);
+    }
+
+    public void exportNotes(OutputStream output, NoteFormat format) throws IOException {
+        try {
+            switch (format) {
+                case JSON -> {
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+                    generator.writeStartArray();
+                    noteService.streamNotes(note -> write(() -> generator.writeObject(note)));
+                    generator.writeEndArray();
+                    generator.flush();
+                }
+                case NDJSON -> {
+                    ObjectWriter writer = objectMapper.writerFor(Note.class);
+                    noteService.streamNotes(note -> write(() -> {
+                        output.write(writer.writeValueAsBytes(note));
+                        output.write('\n');
+                    }));
+                    output.flush();
+                }
+                case CSV -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                    NoteCsv.writeRecord(writer, "id", "title", "content", "createdAt", "updatedAt");
+                    noteService.streamNotes(note -> write(() -> NoteCsv.writeRecord(writer,
+                            String.valueOf(note.getId()), note.getTitle(), note.getContent(),
+                            formatDate(note.getCreatedAt()), formatDate(note.getUpdatedAt()))));
+                    writer.flush();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long saveChunk(List<Note> chunk) {
+        Date now = new Date();
+        for (Note note : chunk) {
+            note.setId(null);
+            note.setVersion(null);
+            if (note.getCreatedAt() == null) {
+                note.setCreatedAt(now);
+            }
+            if (note.getUpdatedAt() == null) {
+                note.setUpdatedAt(note.getCreatedAt());
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                noteRepository.saveAll(chunk);
+                noteChangeFeed.recordAll(chunk.stream().map(Note::getId).toList(), NoteChangeType.CREATED);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            int saved = chunk.size();
+            // The chunk is committed; a failure from here on must not report it as not imported
+            try {
+                for (Note note : chunk) {
+                    noteSearchIndex.index(note);
+                    noteVectorIndex.indexAsync(note);
+                }
+                noteCache.invalidateSearches();
+            } catch (RuntimeException e) {
+                log.warn("Could not index {} imported notes; they are indexed on the next restart", saved, e);
+            }
+            return saved;
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    private static String validate(Note note) {
+        if (note.getTitle() == null || note.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (note.getTitle().length() > Note.MAX_TITLE_LENGTH) {
+            return "Title must be at most " + Note.MAX_TITLE_LENGTH + " characters";
+        }
+        if (note.getContent() != null && note.getContent().length() > Note.MAX_CONTENT_LENGTH) {
+            return "Content must be at most " + Note.MAX_CONTENT_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private NoteReader openReader(InputStream input, NoteFormat format) throws IOException {
+        return switch (format) {
+            case JSON -> {
+                JsonParser parser = objectMapper.getFactory().createParser(input);
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("Expected a JSON array of notes");
+                }
+                yield new NoteReader() {
+                    @Override
+                    public Note next() throws IOException {
+                        JsonToken token = parser.nextToken();
+                        return token == null || token == JsonToken.END_ARRAY ? null : objectMapper.readValue(parser, Note.class);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        parser.close();
+                    }
+                };
+            }
+            case NDJSON -> {
+                BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+                yield new NoteReader() {
+                    @Override
+                    public Note next() throws IOException {
+                        String line;
+                        while ((line = lines.readLine()) != null) {
+                            if (!line.isBlank()) {
+                                return objectMapper.readValue(line, Note.class);
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        lines.close();
+                    }
+                };
+            }
+            case CSV -> {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+                List<String> header = NoteCsv.readRecord(reader);
+                if (header == null) {
+                    throw new IOException("CSV input is empty");
+                }
+                int title = column(header, "title");
+                int content = column(header, "content");
+                int createdAt = column(header, "createdat");
+                int updatedAt = column(header, "updatedat");
+                if (title < 0) {
+                    throw new IOException("CSV header must contain a title column");
+                }
+                yield new NoteReader() {
+                    @Override
+                    public Note next() throws IOException {
+                        List<String> fields = NoteCsv.readRecord(reader);
+                        while (fields != null && fields.size() == 1 && fields.get(0).isEmpty()) {
+                            fields = NoteCsv.readRecord(reader);
+                        }
+                        if (fields == null) {
+                            return null;
+                        }
+                        return Note.builder()
+                                .title(field(fields, title))
+                                .content(field(fields, content))
+                                .createdAt(parseDate(field(fields, createdAt)))
+                                .updatedAt(parseDate(field(fields, updatedAt)))
+                                .build();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        reader.close();
+                    }
+                };
+            }
+        };
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).strip().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static Date parseDate(String value) {
+        return value == null || value.isBlank() ? null : Date.from(Instant.parse(value.strip()));
+    }
+
+    private static String formatDate(Date date) {
+        return date == null ? "" : date.toInstant().toString();
+    }
+
+    private static void addError(List<String> errors, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    private static void write(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface NoteReader extends Closeable {
+        Note next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.Note;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Embeddings of all notes in an in-process HNSW index, optionally persisted to
+ * {@code ai.vector-index.path} so restarts do not have to re-embed the corpus. Writes made by
+ * requests go through {@link #indexAsync} and {@link #removeAsync}, which embed on a single
+ * background thread in submission order, so no request or transaction waits on the embedder.
+ */
+@Slf4j
+@Component
+public class NoteVectorIndex {
+
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    private final NoteEmbedder embedder;
+    private final Path indexPath;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double maxDeletedFraction;
+    private final ExecutorService updates;
+
+    private volatile HnswIndex index;
+    private volatile boolean dirty;
+
+    public NoteVectorIndex(NoteEmbedder embedder,
+                           @Value("${ai.vector-index.path:}") String indexPath,
+                           @Value("${ai.vector-index.m:16}") int m,
+                           @Value("${ai.vector-index.ef-construction:100}") int efConstruction,
+                           @Value("${ai.vector-index.ef-search:64}") int efSearch,
+                           @Value("${ai.vector-index.max-deleted-fraction:0.3}") double maxDeletedFraction) {
+        this.embedder = embedder;
+        this.indexPath = indexPath.isBlank() ? null : Path.of(indexPath);
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.maxDeletedFraction = maxDeletedFraction;
+        this.index = new HnswIndex(embedder.dimensions(), m, efConstruction);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("note-embedding-");
+        threadFactory.setDaemon(true);
+        this.updates = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Replaces the in-memory index with the persisted one, if there is a usable file.
+     */
+    public boolean load() {
+        if (indexPath == null || !Files.exists(indexPath)) {
+            return false;
+        }
+        try (InputStream input = Files.newInputStream(indexPath)) {
+            HnswIndex loaded = HnswIndex.load(input);
+            if (loaded.dimensions() != embedder.dimensions()) {
+                log.warn("Ignoring vector index {}: built with {} dimensions, embedder has {}",
+                        indexPath, loaded.dimensions(), embedder.dimensions());
+                return false;
+            }
+            index = loaded;
+            dirty = false;
+            log.info("Loaded vector index with {} notes from {}", loaded.size(), indexPath);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not load vector index from {}; it will be rebuilt", indexPath, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updates.shutdown();
+        try {
+            if (!updates.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Dropped {} queued vector index updates on shutdown", updates.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    public void save() {
+        if (indexPath == null || !dirty) {
+            return;
+        }
+        try {
+            Path parent = indexPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, indexPath.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                index.save(output);
+            }
+            Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Could not save vector index to {}", indexPath, e);
+        }
+    }
+
+    public boolean contains(Long id) {
+        return index.contains(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void index(Note note) {
+        String text = text(note);
+        float[] vector = embedder.embed(text);
+        synchronized (this) {
+            index.add(note.getId(), fingerprint(text), vector);
+            dirty = true;
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Whether the index holds a vector for the note's current title and content; it does not
+     * after loading a file saved before the note was last edited.
+     */
+    public boolean isCurrent(Note note) {
+        return index.contains(note.getId(), fingerprint(text(note)));
+    }
+
+    public synchronized void remove(Long id) {
+        index.remove(id);
+        dirty = true;
+        compactIfNeeded();
+    }
+
+    /**
+     * Drops the entries of notes that no longer exist; returns how many were dropped.
+     */
+    public synchronized int retainAll(Set<Long> ids) {
+        int removed = index.retainAll(ids);
+        if (removed > 0) {
+            dirty = true;
+            compactIfNeeded();
+        }
+        return removed;
+    }
+
+    public void indexAsync(Note note) {
+        submit(() -> index(note));
+    }
+
+    public void removeAsync(Long id) {
+        submit(() -> remove(id));
+    }
+
+    /**
+     * Embeds the notes with the given ids in the background, loading them a page at a time so
+     * neither the notes nor a database cursor are held while the embedder runs.
+     */
+    public void indexAllAsync(List<Long> ids, Function<List<Long>, List<Note>> loader) {
+        for (int from = 0; from < ids.size(); from += LOAD_PAGE_SIZE) {
+            List<Long> page = List.copyOf(ids.subList(from, Math.min(from + LOAD_PAGE_SIZE, ids.size())));
+            submit(() -> loader.apply(page).forEach(this::index));
+        }
+    }
+
+    /**
+     * Saves the index once every update queued before this call has been applied.
+     */
+    public void saveAsync() {
+        submit(() -> {
+            save();
+            log.info("Vector index is up to date with {} notes", size());
+        });
+    }
+
+    public List<Long> search(String query, int k) {
+        return index.search(embedder.embed(query), k, efSearch).stream()
+                .map(HnswIndex.Match::id)
+                .toList();
+    }
+
+    // Rebuilds the graph without dead nodes once they pass the configured share; searches keep
+    // using the old graph until the new one is swapped in
+    private void compactIfNeeded() {
+        if (index.deletedFraction() <= maxDeletedFraction) {
+            return;
+        }
+        long start = System.nanoTime();
+        double deletedFraction = index.deletedFraction();
+        index = index.compact();
+        log.info("Compacted vector index to {} notes ({}% dead entries) in {} ms", index.size(),
+                Math.round(deletedFraction * 100), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void submit(Runnable update) {
+        updates.execute(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                log.warn("Could not update the vector index", e);
+            }
+        });
+    }
+
+    private static String text(Note note) {
+        return note.getContent() == null ? note.getTitle() : note.getTitle() + "\n" + note.getContent();
+    }
+
+    // 64-bit FNV-1a of the embedded text, stored with each vector
+    static long fingerprint(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.aidemo.service;
+
+/**
+ * A rendered prompt with its estimated size. {@code savedTokens} is the input removed by
+ * compaction or truncation to fit the operation's budget.
+ */
+public record PreparedPrompt(String text, int promptTokens, int savedTokens, boolean truncated) {
+}
@@ -0,0 +1,95 @@
+package com.example.aidemo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Per-operation input budgets, checked with {@link TokenEstimator} before a prompt is sent.
+ * Input over its budget is compacted (whitespace runs collapsed) and, if still too long, cut at
+ * a word boundary. A budget never exceeds what the context window leaves after the template and
+ * the completion's {@code max-tokens}, so oversized input cannot fail at the model.
+ */
+@Component
+public class PromptBudget {
+
+    static final String TRUNCATION_MARKER = "\n[truncated]";
+
+    private static final Pattern HORIZONTAL_WHITESPACE = Pattern.compile("[ \\t\\x0B\\f\\r]+");
+    private static final Pattern BLANK_LINES = Pattern.compile(" ?\\n( ?\\n)+ ?");
+
+    private final Map<AIOperation, Integer> inputBudgets = new EnumMap<>(AIOperation.class);
+
+    public PromptBudget(@Value("${ai.prompt.context-tokens:100000}") int contextTokens,
+                        @Value("${spring.ai.bedrock.anthropic.claude.max-tokens:500}") int maxTokens,
+                        @Value("${ai.prompt.budget.summarize:${ai.summary.chunk-tokens:2000}}") int summarizeBudget,
+                        @Value("${ai.prompt.budget.ideas:500}") int ideasBudget,
+                        @Value("${ai.prompt.budget.improve:4000}") int improveBudget,
+                        @Value("${ai.prompt.budget.answer:4000}") int answerBudget) {
+        int available = contextTokens - maxTokens;
+        setBudget(AIOperation.SUMMARIZE, summarizeBudget, available);
+        // MapReduceSummarizer may combine two partial summaries that are each at the chunk budget
+        setBudget(AIOperation.COMBINE_SUMMARIES,
+                2 * summarizeBudget + TokenEstimator.estimate(MapReduceSummarizer.PART_SEPARATOR), available);
+        setBudget(AIOperation.IDEAS, ideasBudget, available);
+        setBudget(AIOperation.IMPROVE, improveBudget, available);
+        setBudget(AIOperation.ANSWER, answerBudget, available);
+    }
+
+    public int inputBudget(AIOperation operation) {
+        return inputBudgets.get(operation);
+    }
+
+    public PreparedPrompt prepare(AIOperation operation, String input) {
+        int budget = inputBudgets.get(operation);
+        int inputTokens = TokenEstimator.estimate(input);
+        String fitted = input;
+        int fittedTokens = inputTokens;
+        boolean truncated = false;
+        if (inputTokens > budget) {
+            fitted = compact(input);
+            fittedTokens = TokenEstimator.estimate(fitted);
+            if (fittedTokens > budget) {
+                fitted = truncate(fitted, budget);
+                fittedTokens = TokenEstimator.estimate(fitted);
+                truncated = true;
+            }
+        }
+        PromptTemplate template = operation.template();
+        return new PreparedPrompt(template.render(fitted), template.fixedTokens() + fittedTokens,
+                inputTokens - fittedTokens, truncated);
+    }
+
+    static String compact(String input) {
+        String text = HORIZONTAL_WHITESPACE.matcher(input.strip()).replaceAll(" ");
+        return BLANK_LINES.matcher(text).replaceAll("\n\n");
+    }
+
+    // Keeps the start of the text: instructions and questions usually lead
+    static String truncate(String text, int budget) {
+        int maxChars = Math.max(0, budget * 4 - TRUNCATION_MARKER.length());
+        int cut = maxChars;
+        for (int i = maxChars; i > maxChars / 2; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                cut = i;
+                break;
+            }
+        }
+        if (cut > 0 && Character.isHighSurrogate(text.charAt(cut - 1))) {
+            cut--;
+        }
+        return text.substring(0, cut).stripTrailing() + TRUNCATION_MARKER;
+    }
+
+    private void setBudget(AIOperation operation, int budget, int available) {
+        int limit = Math.min(budget, available - operation.template().fixedTokens());
+        if (limit < 1) {
+            throw new IllegalArgumentException("No room for input in the " + operation
+                    + " prompt; check ai.prompt.* and the model's max-tokens");
+        }
+        inputBudgets.put(operation, limit);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.aidemo.service;
+
+/**
+ * A prompt with one {@value #INPUT} placeholder, split around the placeholder once when it is
+ * compiled. Rendering is a single presized copy, and the token cost of the fixed text is known
+ * up front so input budgets can be checked before anything is rendered.
+ */
+public final class PromptTemplate {
+
+    public static final String INPUT = "{input}";
+
+    private final String prefix;
+    private final String suffix;
+    private final int fixedTokens;
+
+    private PromptTemplate(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.fixedTokens = TokenEstimator.estimate(prefix) + TokenEstimator.estimate(suffix);
+    }
+
+    public static PromptTemplate compile(String template) {
+        int placeholder = template.indexOf(INPUT);
+        if (placeholder < 0 || template.indexOf(INPUT, placeholder + 1) >= 0) {
+            throw new IllegalArgumentException("Prompt template needs exactly one " + INPUT + ": " + template);
+        }
+        return new PromptTemplate(template.substring(0, placeholder),
+                template.substring(placeholder + INPUT.length()));
+    }
+
+    public String render(String input) {
+        return new StringBuilder(prefix.length() + input.length() + suffix.length())
+                .append(prefix)
+                .append(input)
+                .append(suffix)
+                .toString();
+    }
+
+    /**
+     * Estimated tokens of the template text without the input.
+     */
+    public int fixedTokens() {
+        return fixedTokens;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.aidemo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into chunks within a token budget, preferring paragraph and then sentence
+ * boundaries. Only a single sentence longer than the budget is split between words.
+ */
+public final class TextChunker {
+
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern SENTENCE_BREAK = Pattern.compile("(?<=[.!?])\\s+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextChunker() {
+    }
+
+    public static List<String> split(String text, int maxTokens) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : PARAGRAPH_BREAK.split(text.strip())) {
+            if (TokenEstimator.estimate(paragraph) <= maxTokens) {
+                append(chunks, current, paragraph, "\n\n", maxTokens);
+                continue;
+            }
+            for (String sentence : SENTENCE_BREAK.split(paragraph)) {
+                if (TokenEstimator.estimate(sentence) <= maxTokens) {
+                    append(chunks, current, sentence, " ", maxTokens);
+                    continue;
+                }
+                for (String word : WHITESPACE.split(sentence)) {
+                    append(chunks, current, word, " ", maxTokens);
+                }
+            }
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    private static void append(List<String> chunks, StringBuilder current, String piece, String separator, int maxTokens) {
+        if (piece.isBlank()) {
+            return;
+        }
+        if (current.length() > 0
+                && TokenEstimator.estimate(current) + TokenEstimator.estimate(separator) + TokenEstimator.estimate(piece) > maxTokens) {
+            chunks.add(current.toString());
+            current.setLength(0);
+        }
+        if (current.length() > 0) {
+            current.append(separator);
+        }
+        current.append(piece);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.aidemo.service;
+
+/**
+ * Token bucket refilled continuously at {@code ratePerSecond} up to {@code capacity} tokens.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond, double capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryConsume() {
+        return tryConsume(1);
+    }
+
+    /**
+     * Takes {@code permits} tokens if available; {@code permits} must not exceed the capacity.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they will be available
+     */
+    synchronized long tryConsume(int permits) {
+        long waitNanos = waitFor(permits);
+        if (waitNanos == 0) {
+            tokens -= permits;
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Nanoseconds until {@code permits} tokens will be available, without taking them.
+     */
+    synchronized long waitFor(int permits) {
+        if (permits > capacity) {
+            throw new IllegalArgumentException("Cannot take " + permits + " tokens from a bucket of " + (long) capacity);
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        return tokens >= permits ? 0 : (long) Math.ceil((permits - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Returns tokens taken for a request that was rejected further on.
+     */
+    synchronized void refund(int permits) {
+        tokens = Math.min(capacity, tokens + permits);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.aidemo.service;
+
+/**
+ * Cheap local approximation of model token counts (roughly four characters per token).
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return 0;
+        }
+        return (text.length() + 3) / 4;
+    }
+}
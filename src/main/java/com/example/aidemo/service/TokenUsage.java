@@ -0,0 +1,33 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AIUsage;
+
+/**
+ * Estimated token totals for one request, which may make several model calls when a long text
+ * is summarized in chunks, and whether any part was answered from a stale cached response.
+ */
+final class TokenUsage {
+
+    private int promptTokens;
+    private int savedTokens;
+    private boolean truncated;
+    private boolean degraded;
+
+    synchronized void add(int sent, int saved, boolean truncated) {
+        this.promptTokens += sent;
+        this.savedTokens += saved;
+        this.truncated |= truncated;
+    }
+
+    synchronized void markDegraded() {
+        this.degraded = true;
+    }
+
+    synchronized boolean degraded() {
+        return degraded;
+    }
+
+    synchronized AIUsage snapshot() {
+        return new AIUsage(promptTokens, savedTokens, truncated);
+    }
+}
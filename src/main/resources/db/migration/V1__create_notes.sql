@@ -0,0 +1,28 @@
+-- Increments match the allocationSize of the entity sequence generators
+CREATE SEQUENCE note_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE note_change_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE note (
+    id                   BIGINT        NOT NULL PRIMARY KEY,
+    title                VARCHAR(255)  NOT NULL,
+    content              VARCHAR(1000),
+    created_at           TIMESTAMP(6),
+    updated_at           TIMESTAMP(6),
+    version              BIGINT,
+    summary              VARCHAR(4000),
+    summary_content_hash VARCHAR(64),
+    summarized_at        TIMESTAMP(6),
+    -- H2 has no expression indexes, so the lower-cased title is a generated column
+    title_lower          VARCHAR(255)  GENERATED ALWAYS AS (LOWER(title))
+);
+
+-- Matches the keyset pagination and export order, so paging never sorts the table
+CREATE INDEX idx_note_updated_at_id ON note (updated_at DESC, id DESC);
+CREATE INDEX idx_note_title_lower ON note (title_lower, id);
+
+CREATE TABLE note_change (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    note_id    BIGINT       NOT NULL,
+    type       VARCHAR(16)  NOT NULL,
+    changed_at TIMESTAMP(6)
+);
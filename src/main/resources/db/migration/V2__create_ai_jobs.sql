@@ -0,0 +1,18 @@
+CREATE SEQUENCE ai_job_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ai_job (
+    id           BIGINT          NOT NULL PRIMARY KEY,
+    operation    VARCHAR(32)     NOT NULL,
+    status       VARCHAR(16)     NOT NULL,
+    input        VARCHAR(100000) NOT NULL,
+    result       VARCHAR(100000),
+    error        VARCHAR(1000),
+    attempts     INTEGER         NOT NULL,
+    created_at   TIMESTAMP(6),
+    started_at   TIMESTAMP(6),
+    completed_at TIMESTAMP(6)
+);
+
+-- Restart recovery loads queued and running jobs in id order; retention deletes by completion time
+CREATE INDEX idx_ai_job_status_id ON ai_job (status, id);
+CREATE INDEX idx_ai_job_completed_at ON ai_job (completed_at);
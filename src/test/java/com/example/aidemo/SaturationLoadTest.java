@@ -0,0 +1,177 @@
+package com.example.aidemo;
+
+import com.example.aidemo.service.AnthropicAsyncClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.bedrock.anthropic.AnthropicChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Saturates the AI endpoints with a slow fake model and checks that note CRUD latency stays flat.
+ * Tomcat is shrunk to a handful of threads so the saturation point is cheap to reach.
+ * Run with {@code mvn -Pload-test test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=16",
+        "ai.cache.max-size=0",
+        // Measures thread isolation, so admission control must not shed the load
+        "ai.admission.global.rate=0",
+        "ai.admission.client.rate=0",
+        "ai.admission.max-concurrent=1000",
+        "spring.jpa.show-sql=false"
+})
+public class SaturationLoadTest {
+
+    private static final Duration MODEL_LATENCY = Duration.ofSeconds(2);
+    private static final int AI_CONCURRENCY = 64;
+    private static final int CRUD_SAMPLES = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @MockBean
+    private AnthropicChatModel anthropicChatModel;
+
+    @MockBean
+    private AnthropicAsyncClient anthropicAsyncClient;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newCachedThreadPool())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void asyncAiEndpointsUnderSaturation_ShouldNotSlowNoteCrud() throws Exception {
+        stubSlowModel();
+
+        assertCrudLatencyStaysFlat("/api/ai/summarize", "{\"text\":\"load %d\"}");
+    }
+
+    @Test
+    void blockingAiEndpointsUnderSaturation_ShouldNotSlowNoteCrudWithVirtualThreads() throws Exception {
+        assumeTrue(virtualThreads && Runtime.version().feature() >= 21,
+                "Blocking endpoints only stay isolated with virtual threads on Java 21+");
+        // The batch blocks its request thread until the model answers
+        stubSlowModel();
+
+        assertCrudLatencyStaysFlat("/api/ai/batch", "{\"texts\":[\"load %d\"]}");
+    }
+
+    private void stubSlowModel() {
+        AnthropicAsyncClient.Completion completion =
+                new AnthropicAsyncClient.Completion("Slow completion", "end_turn", null, null);
+        when(anthropicAsyncClient.complete(any(String.class))).thenAnswer(invocation ->
+                CompletableFuture.supplyAsync(() -> completion,
+                        CompletableFuture.delayedExecutor(MODEL_LATENCY.toMillis(), TimeUnit.MILLISECONDS)));
+    }
+
+    private void assertCrudLatencyStaysFlat(String aiPath, String aiBodyTemplate) throws Exception {
+        long noteId = createNote();
+        double baselineP99 = measureCrudP99(noteId);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger aiCompleted = new AtomicInteger();
+        ExecutorService load = Executors.newFixedThreadPool(AI_CONCURRENCY);
+        try {
+            for (int worker = 0; worker < AI_CONCURRENCY; worker++) {
+                int workerId = worker;
+                load.submit(() -> {
+                    int request = 0;
+                    while (running.get()) {
+                        send(post(aiPath, String.format(aiBodyTemplate, workerId * 100_000 + request++)));
+                        aiCompleted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            // Let the slow calls pile up past the Tomcat thread count before measuring
+            Thread.sleep(MODEL_LATENCY.toMillis() / 2);
+            double loadedP99 = measureCrudP99(noteId);
+
+            assertTrue(loadedP99 <= Math.max(baselineP99 * 5, 250),
+                    String.format("CRUD p99 rose from %.1f ms to %.1f ms under AI saturation", baselineP99, loadedP99));
+        } finally {
+            running.set(false);
+            load.shutdown();
+            load.awaitTermination(MODEL_LATENCY.toSeconds() * 3, TimeUnit.SECONDS);
+        }
+        assertTrue(aiCompleted.get() > 0);
+    }
+
+    private double measureCrudP99(long noteId) throws Exception {
+        List<Long> samples = new ArrayList<>(CRUD_SAMPLES);
+        for (int i = 0; i < CRUD_SAMPLES; i++) {
+            HttpRequest request = i % 2 == 0
+                    ? get("/api/notes/" + noteId)
+                    : put("/api/notes/" + noteId, "{\"title\":\"Load note\",\"content\":\"update " + i + "\"}");
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            samples.add(System.nanoTime() - start);
+            assertEquals(200, response.statusCode());
+        }
+        Collections.sort(samples);
+        return samples.get((int) Math.ceil(samples.size() * 0.99) - 1) / 1_000_000.0;
+    }
+
+    private long createNote() throws Exception {
+        HttpResponse<String> response = send(post("/api/notes", "{\"title\":\"Load note\",\"content\":\"body\"}"));
+        assertEquals(201, response.statusCode());
+        String body = response.body();
+        int idStart = body.indexOf("\"id\":") + 5;
+        return Long.parseLong(body.substring(idStart, body.indexOf(',', idStart)).trim());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest put(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
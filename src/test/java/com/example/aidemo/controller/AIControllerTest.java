@@ -0,0 +1,259 @@
+package com.example.aidemo.controller;
+
+import com.example.aidemo.dto.AIBatchItemResult;
+import com.example.aidemo.dto.AIBatchRequest;
+import com.example.aidemo.dto.AIBatchResponse;
+import com.example.aidemo.dto.AIJobRequest;
+import com.example.aidemo.dto.AIRequest;
+import com.example.aidemo.dto.AIResponse;
+import com.example.aidemo.dto.AIUsage;
+import com.example.aidemo.model.AIJob;
+import com.example.aidemo.model.AIJobStatus;
+import com.example.aidemo.service.AIBatchService;
+import com.example.aidemo.service.AIJobService;
+import com.example.aidemo.service.AIOperation;
+import com.example.aidemo.service.AIOverloadedException;
+import com.example.aidemo.service.AIRateLimiter;
+import com.example.aidemo.service.AIService;
+import com.example.aidemo.service.AIUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AIController.class)
+public class AIControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AIService aiService;
+
+    @MockBean
+    private AIBatchService aiBatchService;
+
+    @MockBean
+    private AIJobService aiJobService;
+
+    @MockBean(name = "aiExecutor")
+    private ExecutorService aiExecutor;
+
+    @MockBean
+    private AIRateLimiter aiRateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void summarizeText_ShouldReturnSummary() throws Exception {
+        // Arrange
+        when(aiService.generateSummaryAsync("Long text")).thenReturn(CompletableFuture.completedFuture(
+                new AIResponse("Short text", new AIUsage(15, 0, false))));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/ai/summarize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AIRequest("Long text"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result", is("Short text")))
+                .andExpect(jsonPath("$.usage.promptTokens", is(15)));
+    }
+
+    @Test
+    void summarizeText_WhenRateLimited_ShouldReturnTooManyRequestsWithRetryAfter() throws Exception {
+        // Arrange
+        doThrow(new AIOverloadedException("Too many AI requests from this client", Duration.ofMillis(1500)))
+                .when(aiRateLimiter).acquire(any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/ai/summarize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AIRequest("Long text"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+
+        verify(aiService, never()).generateSummaryAsync(any());
+    }
+
+    @Test
+    void summarizeText_WhenQueueIsFull_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        when(aiService.generateSummaryAsync("Long text")).thenReturn(CompletableFuture.failedFuture(
+                new AIOverloadedException("AI request queue is full", Duration.ofSeconds(1))));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/ai/summarize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AIRequest("Long text"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void improveText_WhenCircuitIsOpen_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(aiService.improveTextAsync("Draft")).thenReturn(CompletableFuture.failedFuture(
+                new AIUnavailableException("AI model is unavailable", Duration.ofSeconds(30))));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/ai/improve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AIRequest("Draft"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    void streamSummary_ShouldEmitTokenEvents() throws Exception {
+        // Arrange
+        when(aiService.streamResponse(AIOperation.SUMMARIZE, "Long text")).thenReturn(Flux.just("Short", " text"));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/ai/summarize/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .content(objectMapper.writeValueAsString(new AIRequest("Long text"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("event:token\ndata:Short\n\n"),
+                        containsString("event:token\ndata: text\n\n"),
+                        containsString("event:done"))));
+
+        verify(aiService, times(1)).streamResponse(AIOperation.SUMMARIZE, "Long text");
+    }
+
+    @Test
+    void processBatch_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        AIBatchResponse response = new AIBatchResponse(2, 1, 1, 12, List.of(
+                new AIBatchItemResult(0, 1L, "Summary", null),
+                new AIBatchItemResult(1, 2L, null, "Note not found with id: 2")));
+        when(aiBatchService.process(any(AIBatchRequest.class))).thenReturn(response);
+
+        AIBatchRequest request = new AIBatchRequest();
+        request.setNoteIds(List.of(1L, 2L));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/ai/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].result", is("Summary")))
+                .andExpect(jsonPath("$.items[1].error", is("Note not found with id: 2")));
+    }
+
+    @Test
+    void processBatch_WithInvalidRequest_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(aiBatchService.validate(any(AIBatchRequest.class)))
+                .thenThrow(new IllegalArgumentException("Batch must contain noteIds or texts"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/ai/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(aiRateLimiter, never()).acquire(any(), anyInt());
+        verify(aiBatchService, never()).process(any(AIBatchRequest.class));
+    }
+
+    @Test
+    void processBatch_ShouldChargeOneRateLimitTokenPerItem() throws Exception {
+        // Arrange
+        when(aiBatchService.validate(any(AIBatchRequest.class))).thenReturn(3);
+        doThrow(new AIOverloadedException("Too many AI requests from this client", Duration.ofSeconds(3)))
+                .when(aiRateLimiter).acquire(any(), eq(3));
+
+        AIBatchRequest request = new AIBatchRequest();
+        request.setTexts(List.of("First", "Second", "Third"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/ai/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+
+        verify(aiRateLimiter, never()).acquire(any());
+        verify(aiBatchService, never()).process(any(AIBatchRequest.class));
+    }
+
+    @Test
+    void submitJob_ShouldReturnAcceptedWithLocation() throws Exception {
+        // Arrange
+        AIJob job = AIJob.builder()
+                .id(42L)
+                .operation(AIOperation.SUMMARIZE)
+                .status(AIJobStatus.QUEUED)
+                .input("Long text")
+                .createdAt(new Date())
+                .build();
+        when(aiJobService.submit(AIOperation.SUMMARIZE, "Long text")).thenReturn(job);
+
+        AIJobRequest request = new AIJobRequest();
+        request.setText("Long text");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/ai/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/ai/jobs/42"))
+                .andExpect(jsonPath("$.id", is(42)))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    void getJob_WhenJobDoesNotExist_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(aiJobService.getJob(99L)).thenThrow(new EntityNotFoundException("AI job not found with id: 99"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/ai/jobs/99"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,19 +1,37 @@
 package com.example.aidemo.controller;
 
+import com.example.aidemo.dto.NoteChangeEntry;
+import com.example.aidemo.dto.NoteChanges;
+import com.example.aidemo.dto.NotePage;
+import com.example.aidemo.dto.NotePatch;
+import com.example.aidemo.dto.NoteVersion;
 import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChange;
+import com.example.aidemo.model.NoteChangeType;
+import com.example.aidemo.dto.NoteImportResult;
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.service.AIRateLimiter;
+import com.example.aidemo.service.NoteFormat;
 import com.example.aidemo.service.NoteService;
+import com.example.aidemo.service.NoteTransferService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,6 +49,12 @@ public class NoteControllerTest {
     @MockBean
     private NoteService noteService;
 
+    @MockBean
+    private NoteTransferService noteTransferService;
+
+    @MockBean
+    private AIRateLimiter aiRateLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -50,7 +74,7 @@ public class NoteControllerTest {
     @Test
     void getAllNotes_ShouldReturnAllNotes() throws Exception {
         // Arrange
-        List<Note> notes = Arrays.asList(testNote);
+        List<NoteListItem> notes = Arrays.asList(NoteListItem.of(testNote));
         when(noteService.getAllNotes()).thenReturn(notes);
 
         // Act & Assert
@@ -60,19 +84,48 @@ public class NoteControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].title", is("Test Note")))
-                .andExpect(jsonPath("$[0].content", is("This is a test note")));
+                .andExpect(jsonPath("$[0].snippet", is("This is a test note")))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
 
         verify(noteService, times(1)).getAllNotes();
     }
 
+    @Test
+    void getNotesPage_ShouldReturnItemsAndCursor() throws Exception {
+        // Arrange
+        when(noteService.getNotesPage(null, 1)).thenReturn(new NotePage(List.of(NoteListItem.of(testNote)), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notes/page").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+
+        verify(noteService, times(1)).getNotesPage(null, 1);
+    }
+
+    @Test
+    void getNotesPage_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(noteService.getNotesPage("bad", 50)).thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notes/page").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getNoteById_WithValidId_ShouldReturnNote() throws Exception {
         // Arrange
+        when(noteService.getNoteVersion(1L)).thenReturn(NoteVersion.of(testNote));
         when(noteService.getNoteById(1L)).thenReturn(testNote);
 
         // Act & Assert
         mockMvc.perform(get("/api/notes/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-" + testNote.getUpdatedAt().getTime() + "-0\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Test Note")))
@@ -81,6 +134,36 @@ public class NoteControllerTest {
         verify(noteService, times(1)).getNoteById(1L);
     }
 
+    @Test
+    void getNoteById_WithMatchingETag_ShouldReturnNotModifiedWithoutLoadingNote() throws Exception {
+        // Arrange
+        when(noteService.getNoteVersion(1L)).thenReturn(NoteVersion.of(testNote));
+        String eTag = "W/\"1-" + testNote.getUpdatedAt().getTime() + "-0\"";
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notes/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(noteService, never()).getNoteById(any());
+    }
+
+    @Test
+    void getAllNotes_WithCurrentCollectionVersion_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        NoteChange latest = NoteChange.builder().id(7L).noteId(1L).type(NoteChangeType.UPDATED).changedAt(new Date()).build();
+        when(noteService.getLatestChange()).thenReturn(Optional.of(latest));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notes").header("If-None-Match", "W/\"7\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/notes").header("If-None-Match", "W/\"6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"7\""));
+
+        verify(noteService, times(1)).getAllNotes();
+    }
+
     @Test
     void createNote_ShouldReturnCreatedNote() throws Exception {
         // Arrange
@@ -155,11 +238,48 @@ public class NoteControllerTest {
         verify(noteService, times(1)).deleteNote(1L);
     }
 
+    @Test
+    void deleteNote_WithInvalidId_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        doThrow(new EntityNotFoundException("Note not found with id: 99")).when(noteService).deleteNote(99L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/notes/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchNote_ShouldReturnPatchedNote() throws Exception {
+        // Arrange
+        testNote.setVersion(3L);
+        when(noteService.patchNote(eq(1L), eq(new NotePatch("Test Note", null, 2L)))).thenReturn(testNote);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/notes/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Test Note\",\"version\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @Test
+    void patchNote_WithStaleVersion_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(noteService.patchNote(eq(1L), any(NotePatch.class)))
+                .thenThrow(new OptimisticLockingFailureException("Note 1 was modified by someone else"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/notes/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Edited\",\"version\":1}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void searchNotes_ShouldReturnMatchingNotes() throws Exception {
         // Arrange
         List<Note> notes = Arrays.asList(testNote);
-        when(noteService.searchNotes("test")).thenReturn(notes);
+        when(noteService.searchNotes("test", NoteService.DEFAULT_SEARCH_LIMIT)).thenReturn(notes);
 
         // Act & Assert
         mockMvc.perform(get("/api/notes/search").param("query", "test"))
@@ -167,8 +287,78 @@ public class NoteControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].title", is("Test Note")))
+                .andExpect(jsonPath("$[0].snippet", is("This is a test note")))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+
+        verify(noteService, times(1)).searchNotes("test", NoteService.DEFAULT_SEARCH_LIMIT);
+    }
+
+    @Test
+    void importNotes_WithNdjson_ShouldReturnImportResult() throws Exception {
+        // Arrange
+        when(noteTransferService.importNotes(any(), eq(NoteFormat.NDJSON)))
+                .thenReturn(new NoteImportResult(2, 0, true, 5, List.of()));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/notes/import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"A\"}\n{\"title\":\"B\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.completed", is(true)));
+
+        verify(noteTransferService, times(1)).importNotes(any(), eq(NoteFormat.NDJSON));
+    }
+
+    @Test
+    void exportNotes_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/notes/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findByTitlePrefix_ShouldReturnMatchingNotes() throws Exception {
+        // Arrange
+        when(noteService.findByTitlePrefix("test", 20)).thenReturn(List.of(testNote));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notes/by-title").param("prefix", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].title", is("Test Note")));
+    }
 
-        verify(noteService, times(1)).searchNotes("test");
+    @Test
+    void getChanges_ShouldWaitAtMostThirtySecondsAndReturnChanges() throws Exception {
+        // Arrange
+        NoteChanges changes = new NoteChanges(
+                List.of(new NoteChangeEntry(8L, 3L, NoteChangeType.DELETED, new Date(), null)), "8", false);
+        when(noteService.awaitChanges("7", 500, Duration.ofSeconds(30)))
+                .thenReturn(CompletableFuture.completedFuture(changes));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/notes/changes").param("since", "7").param("wait", "120"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.cursor", is("8")))
+                .andExpect(jsonPath("$.changes[0].type", is("DELETED")))
+                .andExpect(jsonPath("$.changes[0].noteId", is(3)));
+    }
+
+    @Test
+    void getChanges_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(noteService.awaitChanges(eq("abc"), anyInt(), any()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: abc"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/notes/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
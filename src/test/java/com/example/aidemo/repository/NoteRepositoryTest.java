@@ -0,0 +1,187 @@
+package com.example.aidemo.repository;
+
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.model.Note;
+import com.example.aidemo.service.NoteCache;
+import com.example.aidemo.service.NoteChangeFeed;
+import com.example.aidemo.service.NoteSearchIndex;
+import com.example.aidemo.service.NoteService;
+import com.example.aidemo.service.NoteSummaryWorker;
+import com.example.aidemo.service.NoteVectorIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hand-written queries against the schema built by the Flyway migrations, which the
+ * mocked repository in the service tests cannot catch.
+ */
+@DataJpaTest
+@Import({NoteService.class, NoteChangeFeed.class, NoteCache.class, NoteSearchIndex.class,
+        NoteRepositoryTest.Metrics.class})
+public class NoteRepositoryTest {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private NoteVectorIndex noteVectorIndex;
+
+    @MockBean
+    private NoteSummaryWorker noteSummaryWorker;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void updateNote_WithoutVersion_ShouldUpdateAndIncrementVersion() {
+        // Arrange
+        Note note = persist("Title", "Content", 1_000);
+
+        // Act
+        int updated = noteRepository.updateNote(note.getId(), "New title", "New content", new Date(), null);
+
+        // Assert
+        assertEquals(1, updated);
+        Note reloaded = reload(note.getId());
+        assertEquals("New title", reloaded.getTitle());
+        assertEquals(note.getVersion() + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void updateNote_WithVersion_ShouldOnlyMatchCurrentVersion() {
+        // Arrange
+        Note note = persist("Title", "Content", 1_000);
+        long version = note.getVersion();
+
+        // Act
+        int stale = noteRepository.updateNote(note.getId(), "Stale", "Stale", new Date(), version + 1);
+        int current = noteRepository.updateNote(note.getId(), "Current", "Current", new Date(), version);
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        assertEquals("Current", reload(note.getId()).getTitle());
+    }
+
+    @Test
+    void patchNote_ShouldKeepFieldsThatAreNull() {
+        // Arrange
+        Note note = persist("Title", "Content", 1_000);
+
+        // Act
+        int updated = noteRepository.patchNote(note.getId(), null, "Patched", new Date(), null);
+
+        // Assert
+        assertEquals(1, updated);
+        Note reloaded = reload(note.getId());
+        assertEquals("Title", reloaded.getTitle());
+        assertEquals("Patched", reloaded.getContent());
+    }
+
+    @Test
+    void findByTitlePrefix_ShouldMatchCaseInsensitivelyOnGeneratedColumn() {
+        // Arrange
+        persist("Budget review", null, 1_000);
+        persist("budget plan", null, 2_000);
+        persist("Travel", null, 3_000);
+        persist("50% off", null, 4_000);
+
+        // Act
+        List<Note> budget = noteRepository.findByTitlePrefix("budget%", 10);
+        List<Note> percent = noteRepository.findByTitlePrefix("50\\%%", 10);
+
+        // Assert
+        assertEquals(List.of("budget plan", "Budget review"), budget.stream().map(Note::getTitle).toList());
+        assertEquals(List.of("50% off"), percent.stream().map(Note::getTitle).toList());
+    }
+
+    @Test
+    void findPageAfter_ShouldContinueKeysetOrderAcrossEqualTimestamps() {
+        // Arrange
+        Note oldest = persist("Oldest", "x".repeat(150), 1_000);
+        Note tiedFirst = persist("Tied 1", "Short", 2_000);
+        Note tiedSecond = persist("Tied 2", "Short", 2_000);
+
+        // Act
+        List<NoteListItem> first = noteRepository.findFirstPage(PageRequest.ofSize(2));
+        NoteListItem last = first.get(1);
+        List<NoteListItem> next = noteRepository.findPageAfter(last.getUpdatedAt(), last.getId(), PageRequest.ofSize(2));
+
+        // Assert
+        assertEquals(List.of(tiedSecond.getId(), tiedFirst.getId()), first.stream().map(NoteListItem::getId).toList());
+        assertEquals(List.of(oldest.getId()), next.stream().map(NoteListItem::getId).toList());
+        assertEquals("x".repeat(NoteListItem.SNIPPET_LENGTH) + "...", next.get(0).getSnippet());
+    }
+
+    @Test
+    void updateSummary_ShouldOnlyApplyToSummarizedVersion() {
+        // Arrange
+        Note note = persist("Title", "Content", 1_000);
+        noteRepository.updateNote(note.getId(), "Edited", "Edited content", new Date(), null);
+
+        // Act
+        int stale = noteRepository.updateSummary(note.getId(), "Old summary", "hash", new Date(), note.getVersion());
+        int current = noteRepository.updateSummary(note.getId(), "New summary", "hash", new Date(), note.getVersion() + 1);
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        Note reloaded = reload(note.getId());
+        assertEquals("New summary", reloaded.getSummary());
+        assertEquals(note.getVersion() + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void updateNote_WithStaleVersion_ShouldThrowOptimisticLockingFailure() {
+        // Arrange
+        Note note = persist("Title", "Content", 1_000);
+        noteRepository.updateNote(note.getId(), "Someone else", "Content", new Date(), note.getVersion());
+        Note details = Note.builder().title("Mine").content("Content").version(note.getVersion()).build();
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> noteService.updateNote(note.getId(), details));
+        assertEquals("Someone else", reload(note.getId()).getTitle());
+    }
+
+    private Note persist(String title, String content, long updatedAt) {
+        Note note = entityManager.persistFlushFind(Note.builder()
+                .title(title)
+                .content(content)
+                .createdAt(new Date(updatedAt))
+                .updatedAt(new Date(updatedAt))
+                .build());
+        entityManager.clear();
+        return note;
+    }
+
+    private Note reload(Long id) {
+        entityManager.clear();
+        return entityManager.find(Note.class, id);
+    }
+}
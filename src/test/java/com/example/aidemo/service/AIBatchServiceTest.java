@@ -0,0 +1,135 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AIBatchProgress;
+import com.example.aidemo.dto.AIBatchRequest;
+import com.example.aidemo.dto.AIBatchResponse;
+import com.example.aidemo.model.Note;
+import com.example.aidemo.repository.NoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AIBatchServiceTest {
+
+    @Mock
+    private AIService aiService;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private ExecutorService executor;
+
+    private AIBatchService aiBatchService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        aiBatchService = new AIBatchService(aiService, noteRepository, executor, 2, 4, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void process_WithNoteIds_ShouldReturnPerItemResultsAndErrors() {
+        // Arrange
+        Note note = Note.builder().id(1L).title("Title").content("Note content").build();
+        when(noteRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(note));
+        when(aiService.generateSummary("Note content")).thenReturn("Summary");
+
+        AIBatchRequest request = new AIBatchRequest();
+        request.setNoteIds(List.of(1L, 2L));
+
+        // Act
+        AIBatchResponse response = aiBatchService.process(request);
+
+        // Assert
+        assertEquals(2, response.getTotal());
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals("Summary", response.getItems().get(0).getResult());
+        assertEquals("Note not found with id: 2", response.getItems().get(1).getError());
+    }
+
+    @Test
+    void process_WhenModelFails_ShouldReportItemError() {
+        // Arrange
+        when(aiService.generateResponse(eq(AIOperation.IMPROVE), any()))
+                .thenReturn("Better")
+                .thenThrow(new IllegalStateException("Throttled"));
+
+        AIBatchRequest request = new AIBatchRequest(AIOperation.IMPROVE, null, List.of("one", "two"), 1);
+
+        // Act
+        AIBatchResponse response = aiBatchService.process(request);
+
+        // Assert
+        assertEquals(1, response.getSucceeded());
+        assertEquals("Throttled", response.getItems().get(1).getError());
+    }
+
+    @Test
+    void process_ShouldNotExceedConcurrencyAndReportProgress() {
+        // Arrange
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(aiService.generateSummary(any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            active.decrementAndGet();
+            return "ok";
+        });
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            texts.add("text " + i);
+        }
+        List<AIBatchProgress> progress = new ArrayList<>();
+
+        // Act
+        AIBatchResponse response = aiBatchService.process(
+                new AIBatchRequest(AIOperation.SUMMARIZE, null, texts, 3), progress::add);
+
+        // Assert
+        assertEquals(12, response.getSucceeded());
+        assertTrue(peak.get() <= 3);
+        assertEquals(12, progress.size());
+        assertEquals(12, progress.get(progress.size() - 1).getCompleted());
+    }
+
+    @Test
+    void process_WithEmptyRequest_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> aiBatchService.process(new AIBatchRequest()));
+    }
+
+    @Test
+    void validate_ShouldCountNoteIdsAndTexts() {
+        // Arrange
+        AIBatchRequest request = new AIBatchRequest();
+        request.setNoteIds(List.of(1L, 2L));
+        request.setTexts(List.of("First", "Second", "Third"));
+
+        // Act & Assert
+        assertEquals(5, aiBatchService.validate(request));
+        request.setTexts(Collections.nCopies(99, "Text"));
+        assertThrows(IllegalArgumentException.class, () -> aiBatchService.validate(request));
+        verifyNoInteractions(noteRepository, aiService);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AICircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void onFailure_WhenFailureRateReachesThreshold_ShouldOpen() {
+        // Arrange
+        AICircuitBreaker breaker = new AICircuitBreaker(meterRegistry, 4, 4, 0.5, Duration.ofMinutes(1));
+        breaker.tryAcquire().onSuccess();
+        breaker.tryAcquire().onSuccess();
+        breaker.tryAcquire().onFailure();
+        assertEquals(AICircuitBreaker.State.CLOSED, breaker.state());
+
+        // Act
+        breaker.tryAcquire().onFailure();
+
+        // Assert
+        assertEquals(AICircuitBreaker.State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+        assertTrue(breaker.retryAfter().toSeconds() > 0);
+        assertEquals(1, meterRegistry.get(AIRateLimiter.REJECTED_COUNTER).tag("reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void tryAcquire_AfterOpenDuration_ShouldAllowOneProbeThatClosesOnSuccess() throws InterruptedException {
+        // Arrange
+        AICircuitBreaker breaker = new AICircuitBreaker(meterRegistry, 2, 1, 1.0, Duration.ofMillis(20));
+        breaker.tryAcquire().onFailure();
+        Thread.sleep(30);
+
+        // Act
+        AICircuitBreaker.Permit probe = breaker.tryAcquire();
+        AICircuitBreaker.Permit second = breaker.tryAcquire();
+        probe.onSuccess();
+
+        // Assert
+        assertTrue(probe.isProbe());
+        assertNull(second);
+        assertEquals(AICircuitBreaker.State.CLOSED, breaker.state());
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpen_ShouldOnlyBeDecidedByTheProbe() throws InterruptedException {
+        // Arrange
+        AICircuitBreaker breaker = new AICircuitBreaker(meterRegistry, 2, 1, 1.0, Duration.ofMillis(20));
+        AICircuitBreaker.Permit beforeOpening = breaker.tryAcquire();
+        breaker.tryAcquire().onFailure();
+        Thread.sleep(30);
+        AICircuitBreaker.Permit probe = breaker.tryAcquire();
+
+        // Act
+        beforeOpening.onSuccess();
+        beforeOpening.onIgnored();
+        boolean admittedWhileProbing = breaker.tryAcquire() != null;
+        probe.onFailure();
+
+        // Assert
+        assertFalse(admittedWhileProbing);
+        assertEquals(AICircuitBreaker.State.OPEN, breaker.state());
+    }
+}
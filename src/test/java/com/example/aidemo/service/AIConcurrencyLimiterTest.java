@@ -0,0 +1,82 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AIConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_WhenQueueIsFull_ShouldRejectImmediately() {
+        // Arrange
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(meterRegistry, 1, 1, Duration.ofSeconds(10));
+        limiter.acquire().join();
+        CompletableFuture<AIConcurrencyLimiter.Permit> queued = limiter.acquire();
+
+        // Act
+        CompletableFuture<AIConcurrencyLimiter.Permit> rejected = limiter.acquire();
+
+        // Assert
+        assertFalse(queued.isDone());
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(AIOverloadedException.class, e.getCause());
+        assertEquals(1, limiter.queueDepth());
+        assertEquals(1, meterRegistry.get(AIRateLimiter.REJECTED_COUNTER).tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void acquire_WhenWaitTimesOut_ShouldRejectAndLeaveQueue() {
+        // Arrange
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(meterRegistry, 1, 4, Duration.ofMillis(50));
+        limiter.acquire().join();
+
+        // Act & Assert
+        AIOverloadedException e = assertThrows(AIOverloadedException.class, limiter::await);
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void close_ShouldHandPermitToOldestWaiter() throws Exception {
+        // Arrange
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(meterRegistry, 1, 4, Duration.ofSeconds(10));
+        AIConcurrencyLimiter.Permit held = limiter.acquire().join();
+        CompletableFuture<AIConcurrencyLimiter.Permit> first = limiter.acquire();
+        CompletableFuture<AIConcurrencyLimiter.Permit> second = limiter.acquire();
+
+        // Act
+        held.close();
+        held.close();
+
+        // Assert
+        first.get(1, TimeUnit.SECONDS);
+        assertFalse(second.isDone());
+        assertEquals(1, limiter.inFlight());
+        assertEquals(1, limiter.queueDepth());
+    }
+
+    @Test
+    void acquire_WhenWaiterGivesUp_ShouldLeaveQueueWithoutTakingPermit() {
+        // Arrange
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(meterRegistry, 1, 4, Duration.ofSeconds(10));
+        AIConcurrencyLimiter.Permit held = limiter.acquire().join();
+        CompletableFuture<AIConcurrencyLimiter.Permit> abandoned = limiter.acquire();
+
+        // Act
+        abandoned.cancel(false);
+        held.close();
+
+        // Assert
+        assertEquals(0, limiter.queueDepth());
+        assertEquals(0, limiter.inFlight());
+        assertTrue(limiter.acquire().isDone());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AIJobResponse;
+import com.example.aidemo.model.AIJob;
+import com.example.aidemo.model.AIJobStatus;
+import com.example.aidemo.repository.AIJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AIJobServiceTest {
+
+    @Mock
+    private AIJobRepository jobRepository;
+
+    @Mock
+    private AIService aiService;
+
+    private AIJobService aiJobService;
+
+    @BeforeEach
+    void setUp() {
+        aiJobService = new AIJobService(jobRepository, aiService, 2, 10, 1000, 2, Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiJobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldStoreQueuedJobAndRunItInBackground() {
+        // Arrange
+        when(jobRepository.save(any(AIJob.class))).thenAnswer(invocation -> {
+            AIJob job = invocation.getArgument(0);
+            job.setId(1L);
+            return job;
+        });
+        when(jobRepository.claim(eq(1L), eq(AIJobStatus.QUEUED), eq(AIJobStatus.RUNNING), any(Date.class))).thenReturn(1);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job(1L, AIOperation.SUMMARIZE, 1)));
+        when(aiService.generateSummary("Long text")).thenReturn("Summary");
+
+        // Act
+        AIJob job = aiJobService.submit(AIOperation.SUMMARIZE, "Long text");
+
+        // Assert
+        assertEquals(1L, job.getId());
+        assertEquals(AIJobStatus.QUEUED, job.getStatus());
+        verify(jobRepository, timeout(1000)).finish(eq(1L), eq(AIJobStatus.SUCCEEDED), eq("Summary"), isNull(), any(Date.class));
+    }
+
+    @Test
+    void submit_WithInvalidRequest_ShouldReject() {
+        assertThrows(IllegalArgumentException.class, () -> aiJobService.submit(AIOperation.COMBINE_SUMMARIES, "parts"));
+        assertThrows(IllegalArgumentException.class, () -> aiJobService.submit(AIOperation.IMPROVE, " "));
+        assertThrows(IllegalArgumentException.class, () -> aiJobService.submit(AIOperation.IMPROVE, "x".repeat(1001)));
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void run_WhenModelIsOverloaded_ShouldRequeueJob() {
+        // Arrange
+        when(jobRepository.claim(eq(2L), eq(AIJobStatus.QUEUED), eq(AIJobStatus.RUNNING), any(Date.class))).thenReturn(1, 0);
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(job(2L, AIOperation.IMPROVE, 1)));
+        when(aiService.generateResponse(AIOperation.IMPROVE, "Draft"))
+                .thenThrow(new AIOverloadedException("AI request queue is full", Duration.ofMillis(10)));
+
+        // Act
+        aiJobService.run(2L);
+
+        // Assert
+        verify(jobRepository).requeue(2L, AIJobStatus.QUEUED);
+        verify(jobRepository, timeout(1000).times(2)).claim(eq(2L), any(), any(), any(Date.class));
+        verify(jobRepository, never()).finish(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void run_WhenAttemptsAreUsedUp_ShouldFailJob() {
+        // Arrange
+        when(jobRepository.claim(eq(3L), eq(AIJobStatus.QUEUED), eq(AIJobStatus.RUNNING), any(Date.class))).thenReturn(1);
+        when(jobRepository.findById(3L)).thenReturn(Optional.of(job(3L, AIOperation.IMPROVE, 2)));
+        when(aiService.generateResponse(AIOperation.IMPROVE, "Draft"))
+                .thenThrow(new AIUnavailableException("AI model is unavailable", Duration.ofSeconds(30)));
+
+        // Act
+        aiJobService.run(3L);
+
+        // Assert
+        verify(jobRepository).finish(eq(3L), eq(AIJobStatus.FAILED), isNull(), eq("AI model is unavailable"), any(Date.class));
+        verify(jobRepository, never()).requeue(any(), any());
+    }
+
+    @Test
+    void recover_ShouldRequeueInterruptedJobsAndRunAllQueuedOnes() {
+        // Arrange
+        when(jobRepository.requeueAll(AIJobStatus.RUNNING, AIJobStatus.QUEUED)).thenReturn(1);
+        when(jobRepository.findIdsByStatus(AIJobStatus.QUEUED)).thenReturn(List.of(5L, 6L));
+
+        // Act
+        aiJobService.recover();
+
+        // Assert
+        verify(jobRepository, timeout(1000)).claim(eq(5L), eq(AIJobStatus.QUEUED), eq(AIJobStatus.RUNNING), any(Date.class));
+        verify(jobRepository, timeout(1000)).claim(eq(6L), eq(AIJobStatus.QUEUED), eq(AIJobStatus.RUNNING), any(Date.class));
+    }
+
+    @Test
+    void awaitCompletion_ShouldCompleteWhenJobFinishes() throws Exception {
+        // Arrange
+        AIJob running = job(7L, AIOperation.ANSWER, 1);
+        running.setStatus(AIJobStatus.RUNNING);
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(running));
+        when(jobRepository.claim(eq(7L), eq(AIJobStatus.QUEUED), eq(AIJobStatus.RUNNING), any(Date.class))).thenReturn(1);
+        when(aiService.generateResponse(AIOperation.ANSWER, "Draft")).thenReturn("Answer");
+
+        // Act
+        CompletableFuture<AIJobResponse> completion = aiJobService.awaitCompletion(7L);
+        assertFalse(completion.isDone());
+        aiJobService.run(7L);
+
+        // Assert
+        AIJobResponse response = completion.get(1, TimeUnit.SECONDS);
+        assertEquals(AIJobStatus.SUCCEEDED, response.getStatus());
+        assertEquals("Answer", response.getResult());
+    }
+
+    private static AIJob job(Long id, AIOperation operation, int attempts) {
+        return AIJob.builder()
+                .id(id)
+                .operation(operation)
+                .status(AIJobStatus.QUEUED)
+                .input(operation == AIOperation.SUMMARIZE ? "Long text" : "Draft")
+                .attempts(attempts)
+                .createdAt(new Date())
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AIMicroBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> prompts = new ArrayList<>();
+    private AIMicroBatcher batcher = new AIMicroBatcher(meterRegistry, true, Duration.ofMillis(20), 3, 50);
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void submit_WithinWindow_ShouldSendOneCallAndSplitAnswers() throws Exception {
+        // Arrange
+        Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model = respond("### ITEM 1\nFirst summary\n\n### ITEM 2\nSecond summary");
+
+        // Act
+        CompletableFuture<String> first = batcher.submit(AIOperation.SUMMARIZE, "first text", "single 1", model);
+        CompletableFuture<String> second = batcher.submit(AIOperation.SUMMARIZE, "second text", "single 2", model);
+
+        // Assert
+        assertEquals("First summary", first.get(1, TimeUnit.SECONDS));
+        assertEquals("Second summary", second.get(1, TimeUnit.SECONDS));
+        assertEquals(1, prompts.size());
+        assertTrue(prompts.get(0).contains("### ITEM 1\nfirst text"));
+        assertTrue(prompts.get(0).contains("### ITEM 2\nsecond text"));
+        assertEquals(2, meterRegistry.get("ai.batching.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void submit_WhenBatchIsFull_ShouldSendWithoutWaitingForWindow() {
+        // Arrange
+        batcher = new AIMicroBatcher(meterRegistry, true, Duration.ofMinutes(1), 2, 50);
+        Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model = respond("### ITEM 1\nA\n### ITEM 2\nB");
+
+        // Act
+        CompletableFuture<String> first = batcher.submit(AIOperation.IMPROVE, "a", "single a", model);
+        CompletableFuture<String> second = batcher.submit(AIOperation.IMPROVE, "b", "single b", model);
+
+        // Assert
+        assertEquals("A", first.join());
+        assertEquals("B", second.join());
+        assertEquals(1, prompts.size());
+    }
+
+    @Test
+    void submit_WhenAnswerIsMissing_ShouldRetryThatItemAlone() throws Exception {
+        // Arrange
+        Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model = prompt -> {
+            prompts.add(prompt);
+            return CompletableFuture.completedFuture(completion(prompt.startsWith("single")
+                    ? "Retried answer"
+                    : "### ITEM 1\nOnly the first", "stop_sequence"));
+        };
+
+        // Act
+        CompletableFuture<String> first = batcher.submit(AIOperation.SUMMARIZE, "one", "single 1", model);
+        CompletableFuture<String> second = batcher.submit(AIOperation.SUMMARIZE, "two", "single 2", model);
+
+        // Assert
+        assertEquals("Only the first", first.get(1, TimeUnit.SECONDS));
+        assertEquals("Retried answer", second.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of("single 2"), prompts.subList(1, prompts.size()));
+        assertEquals(1, meterRegistry.get("ai.batching.fallbacks").counter().count());
+    }
+
+    @Test
+    void submit_WhenResponseHitsTokenLimit_ShouldRetryLastItemAlone() throws Exception {
+        // Arrange
+        Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model = prompt -> {
+            prompts.add(prompt);
+            return CompletableFuture.completedFuture(prompt.startsWith("single")
+                    ? completion("Complete answer", "stop_sequence")
+                    : completion("### ITEM 1\nFirst summary\n### ITEM 2\nSecond summ", "max_tokens"));
+        };
+
+        // Act
+        CompletableFuture<String> first = batcher.submit(AIOperation.SUMMARIZE, "one", "single 1", model);
+        CompletableFuture<String> second = batcher.submit(AIOperation.SUMMARIZE, "two", "single 2", model);
+
+        // Assert
+        assertEquals("First summary", first.get(1, TimeUnit.SECONDS));
+        assertEquals("Complete answer", second.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of("single 2"), prompts.subList(1, prompts.size()));
+    }
+
+    @Test
+    void submit_WhenBatchCallFails_ShouldFailEveryItem() {
+        // Arrange
+        Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> model = prompt -> {
+            prompts.add(prompt);
+            return CompletableFuture.failedFuture(new AIOverloadedException("busy", Duration.ofSeconds(1)));
+        };
+
+        // Act
+        CompletableFuture<String> first = batcher.submit(AIOperation.SUMMARIZE, "one", "single 1", model);
+        CompletableFuture<String> second = batcher.submit(AIOperation.SUMMARIZE, "two", "single 2", model);
+
+        // Assert
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(AIOverloadedException.class, e.getCause());
+        assertThrows(CompletionException.class, second::join);
+        assertEquals(1, prompts.size());
+    }
+
+    @Test
+    void accepts_ShouldOnlyTakeSmallInputsForBatchableOperations() {
+        assertTrue(batcher.accepts(AIOperation.SUMMARIZE, "short text"));
+        assertFalse(batcher.accepts(AIOperation.ANSWER, "short question?"));
+        assertFalse(batcher.accepts(AIOperation.SUMMARIZE, "x".repeat(201)));
+        assertFalse(batcher.accepts(AIOperation.IMPROVE, "text\n### ITEM 2\nmore"));
+        assertFalse(new AIMicroBatcher(meterRegistry, false, Duration.ofMillis(5), 8, 250)
+                .accepts(AIOperation.SUMMARIZE, "short text"));
+    }
+
+    @Test
+    void parse_WithRepeatedNumbers_ShouldReturnNoAnswers() {
+        assertEquals(Arrays.asList(null, null), AIMicroBatcher.parse("### ITEM 1\nA\n### ITEM 1\nB", 2));
+        assertEquals(Arrays.asList("A", "B"), AIMicroBatcher.parse("Sure!\n### ITEM 2:\nB\n###ITEM 1\nA\n", 2));
+    }
+
+    private Function<String, CompletableFuture<AnthropicAsyncClient.Completion>> respond(String response) {
+        return prompt -> {
+            prompts.add(prompt);
+            return CompletableFuture.completedFuture(completion(response, "stop_sequence"));
+        };
+    }
+
+    private static AnthropicAsyncClient.Completion completion(String text, String stopReason) {
+        return new AnthropicAsyncClient.Completion(text, stopReason, null, null);
+    }
+}
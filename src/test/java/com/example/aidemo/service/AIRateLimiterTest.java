@@ -0,0 +1,72 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AIRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_OverClientBurst_ShouldRejectOnlyThatClient() {
+        // Arrange
+        AIRateLimiter limiter = new AIRateLimiter(meterRegistry, 0, 0, 1, 2);
+        limiter.acquire("10.0.0.1");
+        limiter.acquire("10.0.0.1");
+
+        // Act & Assert
+        AIOverloadedException e = assertThrows(AIOverloadedException.class, () -> limiter.acquire("10.0.0.1"));
+        assertTrue(e.getRetryAfter().toMillis() > 0 && e.getRetryAfter().toMillis() <= 1000);
+        assertDoesNotThrow(() -> limiter.acquire("10.0.0.2"));
+        assertEquals(1, meterRegistry.get(AIRateLimiter.REJECTED_COUNTER).tag("reason", "client_rate").counter().count());
+    }
+
+    @Test
+    void acquire_OverGlobalBurst_ShouldRejectAllClients() {
+        // Arrange
+        AIRateLimiter limiter = new AIRateLimiter(meterRegistry, 1, 2, 0, 0);
+        limiter.acquire("10.0.0.1");
+        limiter.acquire("10.0.0.2");
+
+        // Act & Assert
+        assertThrows(AIOverloadedException.class, () -> limiter.acquire("10.0.0.3"));
+        assertEquals(1, meterRegistry.get(AIRateLimiter.REJECTED_COUNTER).tag("reason", "global_rate").counter().count());
+    }
+
+    @Test
+    void acquire_WithPermits_ShouldChargeOneTokenPerPermit() {
+        // Arrange
+        AIRateLimiter limiter = new AIRateLimiter(meterRegistry, 0, 0, 1, 10);
+        limiter.acquire("10.0.0.1", 8);
+
+        // Act & Assert
+        assertThrows(AIOverloadedException.class, () -> limiter.acquire("10.0.0.1", 3));
+        assertDoesNotThrow(() -> limiter.acquire("10.0.0.1", 2));
+        assertThrows(AIOverloadedException.class, () -> limiter.acquire("10.0.0.1"));
+    }
+
+    @Test
+    void acquire_WithMorePermitsThanBurst_ShouldRejectWithoutTakingTokens() {
+        // Arrange
+        AIRateLimiter limiter = new AIRateLimiter(meterRegistry, 20, 40, 1, 10);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> limiter.acquire("10.0.0.1", 11));
+        assertDoesNotThrow(() -> limiter.acquire("10.0.0.1", 10));
+    }
+
+    @Test
+    void acquire_WhenGlobalBucketRejects_ShouldKeepClientTokens() {
+        // Arrange
+        AIRateLimiter limiter = new AIRateLimiter(meterRegistry, 1, 5, 1, 5);
+        limiter.acquire("10.0.0.1", 4);
+
+        // Act & Assert
+        assertThrows(AIOverloadedException.class, () -> limiter.acquire("10.0.0.2", 5));
+        assertDoesNotThrow(() -> limiter.acquire("10.0.0.2"));
+        assertEquals(0, meterRegistry.get(AIRateLimiter.REJECTED_COUNTER).tag("reason", "client_rate").counter().count());
+        assertEquals(1, meterRegistry.get(AIRateLimiter.REJECTED_COUNTER).tag("reason", "global_rate").counter().count());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.aidemo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AIResilienceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void call_WhenAttemptFailsTransiently_ShouldRetryAndSucceed() {
+        // Arrange
+        AIResilience resilience = resilience(3, Duration.ofSeconds(5), false);
+        StubModel model = new StubModel()
+                .fail(new IllegalStateException("Connection reset"))
+                .answer(Duration.ZERO, "Summary");
+
+        // Act
+        String result = resilience.call(AIOperation.SUMMARIZE, model).join();
+
+        // Assert
+        assertEquals("Summary", result);
+        assertEquals(2, model.calls.get());
+        assertEquals(1, meterRegistry.get("ai.resilience.retries").tag("operation", "summarize").counter().count());
+    }
+
+    @Test
+    void call_WhenErrorIsNotTransient_ShouldNotRetry() {
+        // Arrange
+        AIResilience resilience = resilience(3, Duration.ofSeconds(5), false);
+        StubModel model = new StubModel().fail(new AIOverloadedException("AI request queue is full", Duration.ofSeconds(1)));
+
+        // Act
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> resilience.call(AIOperation.SUMMARIZE, model).join());
+
+        // Assert
+        assertInstanceOf(AIOverloadedException.class, e.getCause());
+        assertEquals(1, model.calls.get());
+    }
+
+    @Test
+    void call_WhenModelIsSlowerThanDeadline_ShouldFailWithUnavailable() {
+        // Arrange
+        AIResilience resilience = resilience(3, Duration.ofMillis(100), false);
+        StubModel model = new StubModel().answer(Duration.ofSeconds(5), "Too late");
+
+        // Act
+        long start = System.nanoTime();
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> resilience.call(AIOperation.IDEAS, model).join());
+
+        // Assert
+        assertInstanceOf(AIUnavailableException.class, e.getCause());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void call_WhenCircuitIsOpen_ShouldFailFastWithoutCallingModel() {
+        // Arrange
+        AIResilience resilience = resilience(1, Duration.ofSeconds(5), false);
+        StubModel model = new StubModel()
+                .fail(new IllegalStateException("Internal error"))
+                .fail(new IllegalStateException("Internal error"));
+        assertThrows(CompletionException.class, () -> resilience.call(AIOperation.ANSWER, model).join());
+        assertThrows(CompletionException.class, () -> resilience.call(AIOperation.ANSWER, model).join());
+
+        // Act
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> resilience.call(AIOperation.ANSWER, model).join());
+
+        // Assert
+        assertInstanceOf(AIUnavailableException.class, e.getCause());
+        assertEquals(2, model.calls.get());
+    }
+
+    @Test
+    void stream_WhenCircuitIsOpen_ShouldFailFastWithoutCallingModel() {
+        // Arrange
+        AIResilience resilience = resilience(1, Duration.ofSeconds(5), false);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Flux<String>> model = () -> {
+            calls.incrementAndGet();
+            return Flux.error(new IllegalStateException("Internal error"));
+        };
+        assertThrows(IllegalStateException.class, () -> resilience.stream(AIOperation.ANSWER, model).blockLast());
+        assertThrows(IllegalStateException.class, () -> resilience.stream(AIOperation.ANSWER, model).blockLast());
+
+        // Act & Assert
+        assertThrows(AIUnavailableException.class, () -> resilience.stream(AIOperation.ANSWER, model).blockLast());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void stream_WhenFirstTokenMissesDeadline_ShouldFailWithUnavailable() {
+        // Arrange
+        AIResilience resilience = resilience(1, Duration.ofMillis(100), false);
+
+        // Act & Assert
+        assertThrows(AIUnavailableException.class, () -> resilience.stream(AIOperation.IDEAS,
+                () -> Flux.just("Too late").delayElements(Duration.ofSeconds(5))).blockLast(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void call_WithHedging_ShouldUseFasterSecondAttemptAfterP95() {
+        // Arrange
+        AIResilience resilience = resilience(1, Duration.ofSeconds(5), true);
+        StubModel model = new StubModel();
+        for (int i = 0; i < AIResilience.HEDGE_MIN_SAMPLES; i++) {
+            model.answer(Duration.ZERO, "Warm-up");
+        }
+        model.answer(Duration.ofSeconds(3), "Slow").answer(Duration.ZERO, "Hedged");
+        for (int i = 0; i < AIResilience.HEDGE_MIN_SAMPLES; i++) {
+            resilience.call(AIOperation.IMPROVE, model).join();
+        }
+
+        // Act
+        long start = System.nanoTime();
+        String result = resilience.call(AIOperation.IMPROVE, model).join();
+
+        // Assert
+        assertEquals("Hedged", result);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, meterRegistry.get("ai.resilience.hedges").tag("operation", "improve").counter().count());
+    }
+
+    private AIResilience resilience(int maxAttempts, Duration deadline, boolean hedging) {
+        AICircuitBreaker circuitBreaker = new AICircuitBreaker(meterRegistry, 4, 2, 0.5, Duration.ofMinutes(1));
+        return new AIResilience(meterRegistry, circuitBreaker, maxAttempts,
+                Duration.ofMillis(1), Duration.ofMillis(5), hedging, Duration.ofMillis(20),
+                deadline, deadline, deadline, deadline);
+    }
+
+    /**
+     * Local stand-in for the model that plays back scripted latencies and errors, one per call.
+     */
+    private static final class StubModel implements Supplier<CompletableFuture<String>> {
+
+        private final Deque<Supplier<CompletableFuture<String>>> script = new ArrayDeque<>();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubModel answer(Duration latency, String completion) {
+            script.addLast(() -> CompletableFuture.supplyAsync(() -> completion,
+                    CompletableFuture.delayedExecutor(latency.toMillis(), TimeUnit.MILLISECONDS)));
+            return this;
+        }
+
+        StubModel fail(RuntimeException error) {
+            script.addLast(() -> CompletableFuture.failedFuture(error));
+            return this;
+        }
+
+        @Override
+        public synchronized CompletableFuture<String> get() {
+            calls.incrementAndGet();
+            Supplier<CompletableFuture<String>> next = script.pollFirst();
+            return next != null ? next.get() : CompletableFuture.failedFuture(new IllegalStateException("Unscripted call"));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.AICacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AIResponseCacheTest {
+
+    @Test
+    void get_WithConcurrentIdenticalRequests_ShouldCallLoaderOnce() throws Exception {
+        // Arrange
+        AIResponseCache cache = newCache(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<String> first = executor.submit(() -> cache.get(AIOperation.SUMMARIZE, "text", () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return "summary";
+            }));
+            while (loads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<String> second = executor.submit(() -> cache.get(AIOperation.SUMMARIZE, "text", () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            // Assert
+            assertEquals("summary", first.get(5, TimeUnit.SECONDS));
+            assertEquals("summary", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ShouldKeyOnOperation() {
+        // Arrange
+        AIResponseCache cache = newCache(10, Duration.ofMinutes(1));
+
+        // Act
+        cache.get(AIOperation.SUMMARIZE, "text", () -> "summary");
+        String improved = cache.get(AIOperation.IMPROVE, "text", () -> "improved");
+
+        // Assert
+        assertEquals("improved", improved);
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    void get_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        AIResponseCache cache = newCache(2, Duration.ofMinutes(1));
+        cache.get(AIOperation.ANSWER, "a", () -> "1");
+        cache.get(AIOperation.ANSWER, "b", () -> "2");
+        cache.get(AIOperation.ANSWER, "a", () -> "unused");
+
+        // Act
+        cache.get(AIOperation.ANSWER, "c", () -> "3");
+
+        // Assert
+        assertEquals("1", cache.get(AIOperation.ANSWER, "a", () -> "reloaded"));
+        assertEquals("reloaded", cache.get(AIOperation.ANSWER, "b", () -> "reloaded"));
+        AICacheStats stats = cache.stats();
+        assertEquals(2, stats.getSize());
+        assertTrue(stats.getEvictions() >= 1);
+    }
+
+    @Test
+    void get_AfterTtl_ShouldReload() throws InterruptedException {
+        // Arrange
+        AIResponseCache cache = newCache(10, Duration.ofMillis(1));
+        cache.get(AIOperation.IDEAS, "topic", () -> "old");
+        Thread.sleep(5);
+
+        // Act & Assert
+        assertEquals("new", cache.get(AIOperation.IDEAS, "topic", () -> "new"));
+    }
+
+    @Test
+    void getStale_AfterTtl_ShouldReturnExpiredResponseUntilStaleTtl() throws InterruptedException {
+        // Arrange
+        AIResponseCache cache = new AIResponseCache(10, Duration.ofMillis(1), Duration.ofMinutes(1), "test-model", "0.7", "500");
+        cache.put(AIOperation.IDEAS, "topic", "old");
+        Thread.sleep(5);
+
+        // Act & Assert
+        assertNull(cache.getIfPresent(AIOperation.IDEAS, "topic"));
+        assertEquals("old", cache.getStale(AIOperation.IDEAS, "topic"));
+        assertNull(cache.getStale(AIOperation.IDEAS, "other topic"));
+    }
+
+    @Test
+    void get_WhenLoaderFails_ShouldNotCacheFailure() {
+        // Arrange
+        AIResponseCache cache = newCache(10, Duration.ofMinutes(1));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> cache.get(AIOperation.IDEAS, "topic", () -> {
+            throw new IllegalStateException("model unavailable");
+        }));
+        assertEquals("ok", cache.get(AIOperation.IDEAS, "topic", () -> "ok"));
+    }
+
+    private static AIResponseCache newCache(int maxSize, Duration ttl) {
+        return new AIResponseCache(maxSize, ttl, Duration.ZERO, "test-model", "0.7", "500");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.aidemo.service;
 
+import com.example.aidemo.dto.AIResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.bedrock.anthropic.AnthropicChatModel;
 import org.springframework.ai.chat.ChatResponse;
@@ -12,9 +16,19 @@ import org.springframework.ai.chat.Generation;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.prompt.Prompt;
 
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +38,9 @@ public class AIServiceTest {
     @Mock
     private AnthropicChatModel anthropicChatModel;
 
+    @Mock
+    private AnthropicAsyncClient anthropicAsyncClient;
+
     @Mock
     private ChatResponse chatResponse;
 
@@ -33,13 +50,39 @@ public class AIServiceTest {
     @Mock
     private Message responseMessage;
 
+    @Spy
+    private AIResponseCache responseCache = new AIResponseCache(100, Duration.ofMinutes(1), Duration.ofHours(1), "test-model", "0.7", "500");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AIMetrics aiMetrics = new AIMetrics(meterRegistry);
+
+    @Spy
+    private AIConcurrencyLimiter concurrencyLimiter = new AIConcurrencyLimiter(meterRegistry, 4, 4, Duration.ofSeconds(1));
+
+    @Spy
+    private MapReduceSummarizer summarizer = new MapReduceSummarizer(Executors.newCachedThreadPool(), 50, 2, 100_000);
+
+    @Spy
+    private PromptBudget promptBudget = new PromptBudget(100_000, 500, 50, 20, 4000, 4000);
+
+    @Spy
+    private AIMicroBatcher microBatcher = new AIMicroBatcher(meterRegistry, false, Duration.ofMillis(5), 8, 250);
+
+    @Spy
+    private AIResilience resilience = new AIResilience(meterRegistry,
+            new AICircuitBreaker(meterRegistry, 20, 10, 0.5, Duration.ofSeconds(30)), 1,
+            Duration.ofMillis(1), Duration.ofMillis(1), false, Duration.ofMillis(1),
+            Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5));
+
     @InjectMocks
     private AIService aiService;
 
     @BeforeEach
     void setUp() {
-        when(chatResponse.getResult()).thenReturn(generation);
-        when(generation.getOutput()).thenReturn(responseMessage);
+        lenient().when(chatResponse.getResult()).thenReturn(generation);
+        lenient().when(generation.getOutput()).thenReturn(responseMessage);
     }
 
     @Test
@@ -48,15 +91,60 @@ public class AIServiceTest {
         String inputText = "This is a long text that needs to be summarized.";
         String expectedSummary = "Summary of the text.";
         
-        when(responseMessage.getContent()).thenReturn(expectedSummary);
-        when(anthropicChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(completion(expectedSummary));
 
         // Act
         String actualSummary = aiService.generateSummary(inputText);
 
         // Assert
         assertEquals(expectedSummary, actualSummary);
-        verify(anthropicChatModel, times(1)).call(any(Prompt.class));
+        verify(anthropicAsyncClient, times(1)).complete(any(String.class));
+        assertEquals(1, meterRegistry.get(AIMetrics.CALL_TIMER)
+                .tags("operation", "summarize", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void generateSummary_WhenModelFails_ShouldRecordError() {
+        // Arrange
+        when(anthropicAsyncClient.complete(any(String.class))).thenThrow(new IllegalStateException("Throttled"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> aiService.generateSummary("Text"));
+        assertEquals(1, meterRegistry.get(AIMetrics.ERROR_COUNTER)
+                .tags("operation", "summarize", "exception", "IllegalStateException").counter().count());
+    }
+
+    @Test
+    void generateSummary_WithLongText_ShouldSummarizeChunksAndCombine() {
+        // Arrange
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= 4; i++) {
+            text.append("Paragraph ").append(i)
+                    .append(" covers a different part of the project, in enough detail that it needs a chunk of its own.\n\n");
+        }
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(completion("Part summary."),
+                completion("Part summary."), completion("Part summary."), completion("Part summary."),
+                completion("Final summary."));
+
+        // Act
+        String summary = aiService.generateSummary(text.toString());
+
+        // Assert
+        assertEquals("Final summary.", summary);
+        verify(anthropicAsyncClient, times(5)).complete(any(String.class));
+        assertEquals(1, meterRegistry.get(AIMetrics.CALL_TIMER)
+                .tags("operation", "combine_summaries", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void generateSummaryAsync_WithTextOverMaxLength_ShouldRejectWithoutCallingModel() {
+        // Arrange
+        String text = "x".repeat(100_001);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> aiService.generateSummaryAsync(text));
+        assertThrows(IllegalArgumentException.class, () -> aiService.streamResponse(AIOperation.SUMMARIZE, text));
+        verifyNoInteractions(anthropicChatModel, anthropicAsyncClient);
     }
 
     @Test
@@ -65,15 +153,14 @@ public class AIServiceTest {
         String topic = "AI in healthcare";
         String expectedIdeas = "1. AI for diagnosis\n2. AI for treatment planning";
         
-        when(responseMessage.getContent()).thenReturn(expectedIdeas);
-        when(anthropicChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(completion(expectedIdeas));
 
         // Act
         String actualIdeas = aiService.generateIdeas(topic);
 
         // Assert
         assertEquals(expectedIdeas, actualIdeas);
-        verify(anthropicChatModel, times(1)).call(any(Prompt.class));
+        verify(anthropicAsyncClient, times(1)).complete(any(String.class));
     }
 
     @Test
@@ -82,15 +169,14 @@ public class AIServiceTest {
         String inputText = "This text needs improvement.";
         String expectedImprovedText = "This text has been significantly improved.";
         
-        when(responseMessage.getContent()).thenReturn(expectedImprovedText);
-        when(anthropicChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(completion(expectedImprovedText));
 
         // Act
         String actualImprovedText = aiService.improveText(inputText);
 
         // Assert
         assertEquals(expectedImprovedText, actualImprovedText);
-        verify(anthropicChatModel, times(1)).call(any(Prompt.class));
+        verify(anthropicAsyncClient, times(1)).complete(any(String.class));
     }
 
     @Test
@@ -99,14 +185,157 @@ public class AIServiceTest {
         String question = "What is artificial intelligence?";
         String expectedAnswer = "Artificial intelligence is the simulation of human intelligence by machines.";
         
-        when(responseMessage.getContent()).thenReturn(expectedAnswer);
-        when(anthropicChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(completion(expectedAnswer));
 
         // Act
         String actualAnswer = aiService.answerQuestion(question);
 
         // Assert
         assertEquals(expectedAnswer, actualAnswer);
-        verify(anthropicChatModel, times(1)).call(any(Prompt.class));
+        verify(anthropicAsyncClient, times(1)).complete(any(String.class));
+    }
+
+    @Test
+    void generateSummary_WithRepeatedInput_ShouldServeFromCache() {
+        // Arrange
+        String expectedSummary = "Cached summary.";
+
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(completion(expectedSummary));
+
+        // Act
+        String first = aiService.generateSummary("Some   text to summarize.");
+        String second = aiService.generateSummary(" Some text to summarize. ");
+
+        // Assert
+        assertEquals(expectedSummary, first);
+        assertEquals(expectedSummary, second);
+        assertEquals(1, aiService.getCacheStats().getHits());
+        verify(anthropicAsyncClient, times(1)).complete(any(String.class));
+    }
+
+    @Test
+    void streamResponse_ShouldEmitTokensAndCacheCompletion() {
+        // Arrange
+        when(responseMessage.getContent()).thenReturn("Hello", ", ", "world");
+        when(anthropicChatModel.stream(any(Prompt.class)))
+                .thenReturn(Flux.just(chatResponse, chatResponse, chatResponse));
+
+        // Act
+        List<String> tokens = aiService.streamResponse(AIOperation.ANSWER, "Greet me").collectList().block();
+        String cached = aiService.answerQuestion("Greet me");
+
+        // Assert
+        assertEquals(List.of("Hello", ", ", "world"), tokens);
+        assertEquals("Hello, world", cached);
+        verify(anthropicAsyncClient, never()).complete(any(String.class));
+        // The mocked stream reports no usage, so the counts are estimated from the text
+        assertEquals(3, meterRegistry.get(AIMetrics.TOKEN_COUNTER).tag("operation", "answer").tag("type", "completion").counter().count());
+        assertTrue(meterRegistry.get(AIMetrics.TOKEN_COUNTER).tag("operation", "answer").tag("type", "prompt").counter().count() > 0);
+    }
+
+    @Test
+    void streamResponse_WhenCancelled_ShouldCancelModelStream() {
+        // Arrange
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        when(responseMessage.getContent()).thenReturn("token");
+        when(anthropicChatModel.stream(any(Prompt.class))).thenReturn(
+                Flux.interval(Duration.ofMillis(5))
+                        .map(tick -> chatResponse)
+                        .doOnCancel(() -> upstreamCancelled.set(true)));
+
+        // Act
+        aiService.streamResponse(AIOperation.IDEAS, "Topic").take(2).blockLast(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(upstreamCancelled.get());
+        assertEquals(0, aiService.getCacheStats().getSize());
+    }
+
+    @Test
+    void generateSummaryAsync_ShouldUseAsyncClientAndCoalesceIdenticalCalls() {
+        // Arrange
+        CompletableFuture<AnthropicAsyncClient.Completion> pending = new CompletableFuture<>();
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(pending);
+
+        // Act
+        CompletableFuture<AIResponse> first = aiService.generateSummaryAsync("Long text");
+        CompletableFuture<AIResponse> second = aiService.generateSummaryAsync("Long text");
+        pending.complete(new AnthropicAsyncClient.Completion("Summary", "stop_sequence", 120L, 30L));
+
+        // Assert
+        assertEquals("Summary", first.join().getResult());
+        assertEquals("Summary", second.join().getResult());
+        assertEquals("Summary", aiService.generateSummary("Long text"));
+        verify(anthropicAsyncClient, times(1)).complete(any(String.class));
+        assertEquals(120, meterRegistry.get(AIMetrics.TOKEN_COUNTER).tag("operation", "summarize").tag("type", "prompt").counter().count());
+        assertEquals(30, meterRegistry.get(AIMetrics.TOKEN_COUNTER).tag("operation", "summarize").tag("type", "completion").counter().count());
+    }
+
+    @Test
+    void generateIdeasAsync_WithOversizedTopic_ShouldTruncateToBudgetAndReportUsage() {
+        // Arrange
+        String topic = "word ".repeat(200);
+        when(anthropicAsyncClient.complete(any(String.class))).thenReturn(CompletableFuture.completedFuture(new AnthropicAsyncClient.Completion("Ideas", "stop_sequence", null, null)));
+
+        // Act
+        AIResponse response = aiService.generateIdeasAsync(topic).join();
+        AIResponse cached = aiService.generateIdeasAsync(topic).join();
+
+        // Assert
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(anthropicAsyncClient, times(1)).complete(prompt.capture());
+        assertTrue(prompt.getValue().endsWith(PromptBudget.TRUNCATION_MARKER));
+        assertTrue(TokenEstimator.estimate(prompt.getValue())
+                <= AIOperation.IDEAS.template().fixedTokens() + promptBudget.inputBudget(AIOperation.IDEAS));
+        assertTrue(response.getUsage().isTruncated());
+        assertTrue(response.getUsage().getSavedTokens() > 200);
+        assertEquals(0, cached.getUsage().getPromptTokens());
+        assertEquals(response.getUsage().getPromptTokens() + response.getUsage().getSavedTokens(),
+                cached.getUsage().getSavedTokens());
+    }
+
+    @Test
+    void generateIdeasAsync_WhenModelFails_ShouldFallBackToStaleCachedResponse() {
+        // Arrange
+        when(anthropicAsyncClient.complete(any(String.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Bedrock unavailable")));
+        doReturn("Yesterday's ideas").when(responseCache).getStale(AIOperation.IDEAS, "Gardening");
+
+        // Act
+        AIResponse response = aiService.generateIdeasAsync("Gardening").join();
+
+        // Assert
+        assertEquals("Yesterday's ideas", response.getResult());
+        assertTrue(response.isDegraded());
+        assertEquals(0, response.getUsage().getPromptTokens());
+        assertEquals(1, meterRegistry.get("ai.resilience.fallbacks").tag("operation", "ideas").counter().count());
+    }
+
+    @Test
+    void generateIdeasAsync_WhenDeadlinePassesWhileQueued_ShouldNotStrandPermit() {
+        // Arrange
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(meterRegistry, 1, 4, Duration.ofSeconds(10));
+        AIResilience shortDeadlines = new AIResilience(meterRegistry,
+                new AICircuitBreaker(meterRegistry, 20, 10, 0.5, Duration.ofSeconds(30)), 1,
+                Duration.ofMillis(1), Duration.ofMillis(1), false, Duration.ofMillis(1),
+                Duration.ofMillis(50), Duration.ofMillis(50), Duration.ofMillis(50), Duration.ofMillis(50));
+        AIService service = new AIService(anthropicChatModel, anthropicAsyncClient, responseCache, aiMetrics,
+                summarizer, limiter, promptBudget, microBatcher, shortDeadlines);
+        AIConcurrencyLimiter.Permit held = limiter.acquire().join();
+
+        // Act
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> service.generateIdeasAsync("Gardening").join());
+        held.close();
+
+        // Assert
+        assertInstanceOf(AIUnavailableException.class, e.getCause());
+        assertEquals(0, limiter.queueDepth());
+        assertEquals(0, limiter.inFlight());
+        verify(anthropicAsyncClient, never()).complete(any(String.class));
+    }
+
+    private static CompletableFuture<AnthropicAsyncClient.Completion> completion(String text) {
+        return CompletableFuture.completedFuture(new AnthropicAsyncClient.Completion(text, "end_turn", null, null));
     }
-}
\ No newline at end of file
+}
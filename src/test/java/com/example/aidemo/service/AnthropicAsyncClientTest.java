@@ -0,0 +1,88 @@
+package com.example.aidemo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the async Bedrock path end to end against a local HTTP stub.
+ */
+public class AnthropicAsyncClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> requestPath = new AtomicReference<>();
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+
+    private HttpServer server;
+    private BedrockRuntimeAsyncClient bedrockClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestPath.set(exchange.getRequestURI().getPath());
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = "{\"completion\":\" Stub completion\",\"stop_reason\":\"stop_sequence\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("x-amzn-bedrock-input-token-count", "12");
+            exchange.getResponseHeaders().add("x-amzn-bedrock-output-token-count", "3");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        });
+        server.start();
+
+        bedrockClient = BedrockRuntimeAsyncClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .endpointOverride(URI.create("http://127.0.0.1:" + server.getAddress().getPort()))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(4))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bedrockClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void complete_ShouldInvokeModelAndReturnCompletion() throws Exception {
+        // Arrange
+        AnthropicAsyncClient client = new AnthropicAsyncClient(bedrockClient, objectMapper, "anthropic.claude-v2", 0.5, 200);
+
+        // Act
+        AnthropicAsyncClient.Completion completion = client.complete("Say hello").get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(" Stub completion", completion.text());
+        assertEquals(12L, completion.promptTokens());
+        assertEquals(3L, completion.completionTokens());
+        assertEquals("stop_sequence", completion.stopReason());
+        assertFalse(completion.truncated());
+        assertEquals("/model/anthropic.claude-v2/invoke", requestPath.get());
+        JsonNode body = objectMapper.readTree(requestBody.get());
+        assertEquals("\n\nHuman: Say hello\n\nAssistant:", body.get("prompt").asText());
+        assertEquals(200, body.get("max_tokens_to_sample").asInt());
+        assertEquals(0.5, body.get("temperature").asDouble());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.aidemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void search_ShouldHaveHighRecallAgainstBruteForce() {
+        // Arrange
+        Random random = new Random(1);
+        List<float[]> vectors = new ArrayList<>();
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100);
+        for (int i = 0; i < 2000; i++) {
+            float[] vector = randomUnitVector(random);
+            vectors.add(vector);
+            index.add(i, vector);
+        }
+
+        // Act
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnitVector(random);
+            Set<Long> expected = bruteForce(vectors, query, 10);
+            for (HnswIndex.Match match : index.search(query, 10, 64)) {
+                if (expected.contains(match.id())) {
+                    found++;
+                }
+            }
+        }
+
+        // Assert
+        assertTrue(found / (queries * 10.0) >= 0.9, "recall was " + found / (queries * 10.0));
+    }
+
+    @Test
+    void search_ShouldReturnExactMatchFirst() {
+        // Arrange
+        Random random = new Random(2);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        float[] target = randomUnitVector(random);
+        index.add(42, target);
+        for (int i = 0; i < 200; i++) {
+            index.add(1000 + i, randomUnitVector(random));
+        }
+
+        // Act
+        List<HnswIndex.Match> matches = index.search(target, 3, 32);
+
+        // Assert
+        assertEquals(42, matches.get(0).id());
+        assertEquals(1.0f, matches.get(0).similarity(), 1e-5);
+    }
+
+    @Test
+    void removeAndReplace_ShouldHideStaleEntries() {
+        // Arrange
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        float[] original = randomUnitVector(random);
+        float[] replacement = randomUnitVector(random);
+        index.add(1, original);
+        index.add(2, randomUnitVector(random));
+
+        // Act
+        index.add(1, replacement);
+        index.remove(2);
+
+        // Assert
+        assertEquals(1, index.size());
+        assertFalse(index.contains(2));
+        assertEquals(List.of(1L), index.search(original, 5, 16).stream().map(HnswIndex.Match::id).toList());
+        assertEquals(1.0f, index.search(replacement, 1, 16).get(0).similarity(), 1e-5);
+    }
+
+    @Test
+    void saveAndLoad_ShouldRoundTripGraph() throws Exception {
+        // Arrange
+        Random random = new Random(4);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        for (int i = 0; i < 300; i++) {
+            index.add(i, randomUnitVector(random));
+        }
+        index.remove(7);
+        float[] query = randomUnitVector(random);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        index.save(output);
+        HnswIndex loaded = HnswIndex.load(new ByteArrayInputStream(output.toByteArray()));
+
+        // Assert
+        assertEquals(299, loaded.size());
+        assertFalse(loaded.contains(7));
+        assertEquals(index.search(query, 10, 32), loaded.search(query, 10, 32));
+    }
+
+    @Test
+    void saveAndLoad_ShouldKeepStamps() throws Exception {
+        // Arrange
+        Random random = new Random(5);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        index.add(1, 11L, randomUnitVector(random));
+        index.add(2, 22L, randomUnitVector(random));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        index.save(output);
+        HnswIndex loaded = HnswIndex.load(new ByteArrayInputStream(output.toByteArray()));
+
+        // Assert
+        assertTrue(loaded.contains(1, 11L));
+        assertTrue(loaded.contains(2, 22L));
+        assertFalse(loaded.contains(2, 23L));
+    }
+
+    @Test
+    void retainAllAndCompact_ShouldDropDeadNodesAndKeepLiveOnes() {
+        // Arrange
+        Random random = new Random(6);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            vectors.add(randomUnitVector(random));
+            index.add(i, i, vectors.get(i));
+        }
+        Set<Long> kept = new HashSet<>();
+        for (long i = 0; i < 200; i += 4) {
+            kept.add(i);
+        }
+
+        // Act
+        int removed = index.retainAll(kept);
+        HnswIndex compacted = index.compact();
+
+        // Assert
+        assertEquals(150, removed);
+        assertEquals(0.75, index.deletedFraction(), 1e-9);
+        assertEquals(50, compacted.size());
+        assertEquals(0.0, compacted.deletedFraction());
+        assertTrue(compacted.contains(8, 8L));
+        assertFalse(compacted.contains(9));
+        assertEquals(8, compacted.search(vectors.get(8), 1, 32).get(0).id());
+    }
+
+    @Test
+    void hashingEmbedder_ShouldBeDeterministicAndNormalized() {
+        // Arrange
+        HashingNoteEmbedder embedder = new HashingNoteEmbedder(64);
+
+        // Act
+        float[] first = embedder.embed("Quarterly budget review");
+        float[] second = embedder.embed("quarterly BUDGET review!");
+
+        // Assert
+        assertArrayEquals(first, second);
+        double norm = IntStream.range(0, first.length).mapToDouble(i -> first[i] * first[i]).sum();
+        assertEquals(1.0, norm, 1e-5);
+    }
+
+    private static Set<Long> bruteForce(List<float[]> vectors, float[] query, int k) {
+        List<Integer> ids = new ArrayList<>(IntStream.range(0, vectors.size()).boxed().toList());
+        ids.sort(Comparator.comparingDouble(id -> -dot(vectors.get(id), query)));
+        Set<Long> nearest = new HashSet<>();
+        for (int i = 0; i < k; i++) {
+            nearest.add((long) ids.get(i));
+        }
+        return nearest;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return HashingNoteEmbedder.normalize(vector);
+    }
+}
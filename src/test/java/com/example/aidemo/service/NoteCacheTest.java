@@ -0,0 +1,95 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.Note;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoteCacheTest {
+
+    private NoteCache noteCache;
+
+    @BeforeEach
+    void setUp() {
+        noteCache = new NoteCache(new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(1), 10);
+    }
+
+    @Test
+    void getNote_ShouldLoadOnceAndServeFromCache() {
+        // Arrange
+        int[] loads = {0};
+
+        // Act
+        noteCache.getNote(1L, id -> {
+            loads[0]++;
+            return Optional.of(note(1L, 0L, "Loaded"));
+        });
+        Optional<Note> second = noteCache.getNote(1L, id -> Optional.empty());
+
+        // Assert
+        assertEquals(1, loads[0]);
+        assertEquals("Loaded", second.orElseThrow().getTitle());
+    }
+
+    @Test
+    void getNotes_WhenNoteIsEvictedDuringLoad_ShouldNotCacheStaleRow() {
+        // Act
+        List<Note> loaded = noteCache.getNotes(List.of(1L), ids -> {
+            // A write commits and evicts while the old row is being read
+            noteCache.evict(1L);
+            return List.of(note(1L, 0L, "Old"));
+        });
+
+        // Assert
+        assertEquals("Old", loaded.get(0).getTitle());
+        assertNull(noteCache.getIfPresent(1L));
+    }
+
+    @Test
+    void put_WithOlderVersion_ShouldKeepNewerNote() {
+        // Arrange
+        noteCache.put(note(1L, 2L, "New"));
+
+        // Act
+        noteCache.put(note(1L, 1L, "Old"));
+
+        // Assert
+        assertEquals("New", noteCache.getIfPresent(1L).getTitle());
+    }
+
+    @Test
+    void getSearchResults_WhenWriteHappensDuringSearch_ShouldNotCacheResult() {
+        // Act
+        List<Long> first = noteCache.getSearchResults("keyword", "budget", 10, () -> {
+            noteCache.invalidateSearches();
+            return List.of(1L);
+        });
+        List<Long> second = noteCache.getSearchResults("keyword", "budget", 10, () -> List.of(2L));
+
+        // Assert
+        assertEquals(List.of(1L), first);
+        assertEquals(List.of(2L), second);
+    }
+
+    @Test
+    void warm_AfterWrite_ShouldNotOverwriteEviction() {
+        // Arrange
+        noteCache.evict(1L);
+
+        // Act
+        noteCache.warm(note(1L, 0L, "Preloaded"));
+
+        // Assert
+        assertNull(noteCache.getIfPresent(1L));
+    }
+
+    private static Note note(Long id, Long version, String title) {
+        return Note.builder().id(id).version(version).title(title).build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.NoteChange;
+import com.example.aidemo.model.NoteChangeType;
+import com.example.aidemo.repository.NoteChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteChangeFeedTest {
+
+    @Mock
+    private NoteChangeRepository noteChangeRepository;
+
+    private NoteChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong sequence = new AtomicLong();
+        lenient().when(noteChangeRepository.save(any(NoteChange.class))).thenAnswer(invocation -> {
+            NoteChange change = invocation.getArgument(0);
+            change.setId(sequence.incrementAndGet());
+            return change;
+        });
+        feed = new NoteChangeFeed(noteChangeRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void visibleUpTo_WithEarlierTransactionOpen_ShouldHideLaterCommits() {
+        // Arrange
+        List<TransactionSynchronization> first = recordInTransaction(1L);
+        List<TransactionSynchronization> second = recordInTransaction(2L);
+
+        // Act
+        complete(second, TransactionSynchronization.STATUS_COMMITTED);
+        long whileFirstOpen = feed.visibleUpTo();
+        complete(first, TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(0L, whileFirstOpen);
+        assertEquals(Long.MAX_VALUE, feed.visibleUpTo());
+    }
+
+    @Test
+    void visibleUpTo_AfterRollback_ShouldReleaseChangeId() {
+        // Arrange
+        List<TransactionSynchronization> transaction = recordInTransaction(1L);
+
+        // Act
+        complete(transaction, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(Long.MAX_VALUE, feed.visibleUpTo());
+    }
+
+    @Test
+    void latest_WithEarlierTransactionOpen_ShouldOnlyLookBelowIt() {
+        // Arrange
+        List<TransactionSynchronization> first = recordInTransaction(1L);
+        List<TransactionSynchronization> second = recordInTransaction(2L);
+        complete(second, TransactionSynchronization.STATUS_COMMITTED);
+        when(noteChangeRepository.findFirstByIdLessThanEqualOrderByIdDesc(0L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<NoteChange> latest = feed.latest();
+
+        // Assert
+        assertTrue(latest.isEmpty());
+        complete(first, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    @Test
+    void awaitCommit_ShouldCompleteWhenChangeCommits() throws Exception {
+        // Arrange
+        CompletableFuture<Void> nextCommit = feed.awaitCommit(Duration.ofMinutes(1));
+        List<TransactionSynchronization> transaction = recordInTransaction(1L);
+        assertFalse(nextCommit.isDone());
+
+        // Act
+        complete(transaction, TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        nextCommit.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void awaitCommit_WithoutChanges_ShouldCompleteAfterTimeout() throws Exception {
+        // Act
+        CompletableFuture<Void> nextCommit = feed.awaitCommit(Duration.ofMillis(50));
+
+        // Assert
+        nextCommit.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void record_WithoutTransaction_ShouldThrowException() {
+        assertThrows(IllegalStateException.class, () -> feed.record(1L, NoteChangeType.CREATED));
+        verify(noteChangeRepository, never()).save(any());
+    }
+
+    private List<TransactionSynchronization> recordInTransaction(Long noteId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.record(noteId, NoteChangeType.UPDATED);
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
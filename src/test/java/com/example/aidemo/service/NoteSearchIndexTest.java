@@ -0,0 +1,87 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.Note;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoteSearchIndexTest {
+
+    private NoteSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteSearchIndex();
+        index.index(note(1L, "Meeting notes", "Discussed the quarterly budget and hiring plan"));
+        index.index(note(2L, "Budget", "Budget draft for the marketing budget review"));
+        index.index(note(3L, "Shopping list", "Milk, eggs, bread"));
+    }
+
+    @Test
+    void search_ShouldRankByRelevance() {
+        // Act
+        List<Long> results = index.search("budget", 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), results);
+    }
+
+    @Test
+    void search_WithMultipleTerms_ShouldPreferNotesMatchingMoreTerms() {
+        // Act
+        List<Long> results = index.search("budget hiring", 10);
+
+        // Assert
+        assertEquals(1L, results.get(0));
+    }
+
+    @Test
+    void search_ShouldMatchLastTermAsPrefix() {
+        // Act & Assert
+        assertEquals(List.of(3L), index.search("shop", 10));
+        assertEquals(List.of(3L), index.search("shopping li", 10));
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        // Act & Assert
+        assertEquals(1, index.search("budget", 1).size());
+    }
+
+    @Test
+    void index_WithUpdatedNote_ShouldReplacePreviousTerms() {
+        // Act
+        index.index(note(3L, "Groceries", "Apples and budget coffee"));
+
+        // Assert
+        assertTrue(index.search("milk", 10).isEmpty());
+        assertTrue(index.search("budget", 10).contains(3L));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropNoteFromResults() {
+        // Act
+        index.remove(2L);
+
+        // Assert
+        assertEquals(List.of(1L), index.search("budget", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void tokenize_ShouldLowercaseAndSplitOnPunctuation() {
+        assertEquals(List.of("hello", "world", "42"), NoteSearchIndex.tokenize("Hello, World! 42"));
+    }
+
+    private static Note note(Long id, String title, String content) {
+        return Note.builder()
+                .id(id)
+                .title(title)
+                .content(content)
+                .build();
+    }
+}
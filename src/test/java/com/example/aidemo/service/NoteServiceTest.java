@@ -1,22 +1,43 @@
 package com.example.aidemo.service;
 
+import com.example.aidemo.dto.NoteChanges;
+import com.example.aidemo.dto.NoteListItem;
+import com.example.aidemo.dto.NotePage;
+import com.example.aidemo.dto.NotePatch;
+import com.example.aidemo.dto.NoteSummary;
+import com.example.aidemo.dto.NoteVersion;
 import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChange;
+import com.example.aidemo.model.NoteChangeType;
 import com.example.aidemo.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +46,24 @@ public class NoteServiceTest {
     @Mock
     private NoteRepository noteRepository;
 
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    @Mock
+    private NoteVectorIndex noteVectorIndex;
+
+    @Mock
+    private NoteSummaryWorker noteSummaryWorker;
+
+    @Mock
+    private NoteChangeFeed noteChangeFeed;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private NoteCache noteCache = new NoteCache(new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(1), 0);
+
     @InjectMocks
     private NoteService noteService;
 
@@ -42,17 +81,80 @@ public class NoteServiceTest {
     }
 
     @Test
-    void getAllNotes_ShouldReturnAllNotes() {
+    void buildSearchIndex_ShouldQueueChangedNotesAndDropDeletedOnes() {
         // Arrange
-        List<Note> expectedNotes = Arrays.asList(testNote);
-        when(noteRepository.findAll()).thenReturn(expectedNotes);
+        Note unchanged = Note.builder().id(2L).title("Unchanged").build();
+        when(noteRepository.streamAll()).thenReturn(Stream.of(testNote, unchanged));
+        when(noteVectorIndex.isCurrent(testNote)).thenReturn(false);
+        when(noteVectorIndex.isCurrent(unchanged)).thenReturn(true);
+        when(noteVectorIndex.retainAll(Set.of(1L, 2L))).thenReturn(1);
 
         // Act
-        List<Note> actualNotes = noteService.getAllNotes();
+        noteService.buildSearchIndex();
+
+        // Assert
+        verify(noteVectorIndex).load();
+        verify(noteSearchIndex).index(testNote);
+        verify(noteSearchIndex).index(unchanged);
+        verify(noteVectorIndex).retainAll(Set.of(1L, 2L));
+        verify(noteVectorIndex).indexAllAsync(eq(List.of(1L)), any());
+        verify(noteVectorIndex).saveAsync();
+        verify(noteVectorIndex, never()).index(any(Note.class));
+    }
+
+    @Test
+    void getAllNotes_ShouldReturnListItems() {
+        // Arrange
+        List<NoteListItem> expectedNotes = Arrays.asList(NoteListItem.of(testNote));
+        when(noteRepository.findAllItems()).thenReturn(expectedNotes);
+
+        // Act
+        List<NoteListItem> actualNotes = noteService.getAllNotes();
 
         // Assert
         assertEquals(expectedNotes, actualNotes);
-        verify(noteRepository, times(1)).findAll();
+        verify(noteRepository, times(1)).findAllItems();
+        verify(noteRepository, never()).findAll();
+    }
+
+    @Test
+    void getNotesPage_WithMoreRows_ShouldReturnNextCursor() {
+        // Arrange
+        NoteListItem newer = NoteListItem.of(testNote);
+        NoteListItem older = new NoteListItem(2L, "Older Note", null,
+                new Date(testNote.getUpdatedAt().getTime() - 1000));
+        when(noteRepository.findFirstPage(any(Pageable.class))).thenReturn(Arrays.asList(newer, older));
+
+        // Act
+        NotePage page = noteService.getNotesPage(null, 1);
+
+        // Assert
+        assertEquals(List.of(newer), page.getItems());
+        assertNotNull(page.getNextCursor());
+        verify(noteRepository, times(1)).findFirstPage(argThat(pageable -> pageable.getPageSize() == 2));
+    }
+
+    @Test
+    void getNotesPage_WithCursor_ShouldSeekPastCursor() {
+        // Arrange
+        NoteListItem item = NoteListItem.of(testNote);
+        when(noteRepository.findFirstPage(any(Pageable.class))).thenReturn(Arrays.asList(item, item));
+        String cursor = noteService.getNotesPage(null, 1).getNextCursor();
+        when(noteRepository.findPageAfter(eq(testNote.getUpdatedAt()), eq(1L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // Act
+        NotePage page = noteService.getNotesPage(cursor, 1);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(noteRepository, times(1)).findPageAfter(eq(testNote.getUpdatedAt()), eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void getNotesPage_WithInvalidCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.getNotesPage("not-a-cursor", 10));
     }
 
     @Test
@@ -105,34 +207,32 @@ public class NoteServiceTest {
         assertEquals(savedNote.getId(), result.getId());
         assertEquals(savedNote.getTitle(), result.getTitle());
         verify(noteRepository, times(1)).save(any(Note.class));
+        verify(noteSearchIndex, times(1)).index(savedNote);
+        verify(noteVectorIndex, times(1)).indexAsync(savedNote);
+        verify(noteChangeFeed, times(1)).record(1L, NoteChangeType.CREATED);
+        verify(noteSummaryWorker, times(1)).schedule(savedNote);
     }
 
     @Test
-    void updateNote_WithValidId_ShouldUpdateNote() {
+    void updateNote_WithValidId_ShouldUpdateInOneStatementAndReadBack() {
         // Arrange
         Note updatedDetails = Note.builder()
                 .title("Updated Title")
                 .content("Updated Content")
                 .build();
-        
-        Note existingNote = Note.builder()
-                .id(1L)
-                .title("Original Title")
-                .content("Original Content")
-                .createdAt(new Date())
-                .updatedAt(new Date())
-                .build();
-        
-        Note expectedNote = Note.builder()
+
+        Note updatedNote = Note.builder()
                 .id(1L)
                 .title("Updated Title")
                 .content("Updated Content")
-                .createdAt(existingNote.getCreatedAt())
-                .updatedAt(any(Date.class))
+                .createdAt(new Date())
+                .updatedAt(new Date())
+                .version(1L)
                 .build();
-        
-        when(noteRepository.findById(1L)).thenReturn(Optional.of(existingNote));
-        when(noteRepository.save(any(Note.class))).thenReturn(expectedNote);
+
+        when(noteRepository.updateNote(eq(1L), eq("Updated Title"), eq("Updated Content"), any(Date.class), isNull()))
+                .thenReturn(1);
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(updatedNote));
 
         // Act
         Note result = noteService.updateNote(1L, updatedDetails);
@@ -140,40 +240,325 @@ public class NoteServiceTest {
         // Assert
         assertEquals("Updated Title", result.getTitle());
         assertEquals("Updated Content", result.getContent());
+        verify(noteRepository, never()).save(any(Note.class));
+        verify(noteSearchIndex, times(1)).index(updatedNote);
+        verify(noteSummaryWorker, times(1)).schedule(updatedNote);
+    }
+
+    @Test
+    void updateNote_WithCachedNoteAtExpectedVersion_ShouldNotReadBack() {
+        // Arrange
+        testNote.setVersion(3L);
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+        noteService.getNoteById(1L);
+        when(noteRepository.updateNote(eq(1L), eq("Updated Title"), eq("Updated Content"), any(Date.class), eq(3L)))
+                .thenReturn(1);
+
+        // Act
+        Note result = noteService.updateNote(1L,
+                Note.builder().title("Updated Title").content("Updated Content").version(3L).build());
+
+        // Assert
+        assertEquals("Updated Title", result.getTitle());
+        assertEquals(4L, result.getVersion());
+        assertEquals(result, noteService.getNoteById(1L));
         verify(noteRepository, times(1)).findById(1L);
-        verify(noteRepository, times(1)).save(any(Note.class));
     }
 
     @Test
-    void deleteNote_WithValidId_ShouldDeleteNote() {
+    void updateNote_WithStaleVersion_ShouldThrowConflict() {
         // Arrange
+        when(noteRepository.updateNote(eq(1L), any(), any(), any(Date.class), eq(2L))).thenReturn(0);
+        when(noteRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> noteService.updateNote(1L,
+                Note.builder().title("Title").content("Content").version(2L).build()));
+        verify(noteSearchIndex, never()).index(any(Note.class));
+    }
+
+    @Test
+    void patchNote_ShouldOnlyChangeGivenFields() {
+        // Arrange
+        testNote.setVersion(0L);
         when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
-        doNothing().when(noteRepository).delete(testNote);
+        noteService.getNoteById(1L);
+        when(noteRepository.patchNote(eq(1L), eq("Renamed"), isNull(), any(Date.class), eq(0L))).thenReturn(1);
+
+        // Act
+        Note result = noteService.patchNote(1L, new NotePatch("Renamed", null, 0L));
+
+        // Assert
+        assertEquals("Renamed", result.getTitle());
+        assertEquals("This is a test note", result.getContent());
+        assertEquals(1L, result.getVersion());
+    }
+
+    @Test
+    void patchNote_WithBlankTitle_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> noteService.patchNote(1L, new NotePatch(" ", null, null)));
+        verifyNoInteractions(noteRepository);
+    }
+
+    @Test
+    void getNoteSummary_WithCurrentSummary_ShouldNotScheduleRefresh() {
+        // Arrange
+        testNote.setSummary("Stored summary");
+        testNote.setSummaryContentHash(NoteSummaryWorker.contentHash(testNote));
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // Act
+        NoteSummary summary = noteService.getNoteSummary(1L);
+
+        // Assert
+        assertEquals("Stored summary", summary.getSummary());
+        assertFalse(summary.isStale());
+        verify(noteSummaryWorker, never()).schedule(any(Note.class));
+    }
+
+    @Test
+    void getNoteSummary_AfterContentChanged_ShouldReturnStaleSummaryAndScheduleRefresh() {
+        // Arrange
+        testNote.setSummary("Stored summary");
+        testNote.setSummaryContentHash(NoteSummaryWorker.contentHash(testNote));
+        testNote.setContent("Edited content");
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // Act
+        NoteSummary summary = noteService.getNoteSummary(1L);
+
+        // Assert
+        assertEquals("Stored summary", summary.getSummary());
+        assertTrue(summary.isStale());
+        verify(noteSummaryWorker, times(1)).schedule(testNote);
+    }
+
+    @Test
+    void deleteNote_WithValidId_ShouldDeleteNote() {
+        // Arrange
+        when(noteRepository.deleteNoteById(1L)).thenReturn(1);
 
         // Act
         noteService.deleteNote(1L);
 
         // Assert
+        verify(noteRepository, never()).findById(any());
+        verify(noteRepository, times(1)).deleteNoteById(1L);
+        verify(noteSearchIndex, times(1)).remove(1L);
+        verify(noteVectorIndex, times(1)).removeAsync(1L);
+        verify(noteChangeFeed, times(1)).record(1L, NoteChangeType.DELETED);
+    }
+
+    @Test
+    void createNote_InTransaction_ShouldApplySideEffectsOnlyAfterCommit() {
+        // Arrange
+        when(noteRepository.save(any(Note.class))).thenReturn(testNote);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            noteService.createNote(Note.builder().title("Test Note").build());
+
+            // Assert
+            verify(noteSearchIndex, never()).index(any(Note.class));
+            verify(noteVectorIndex, never()).indexAsync(any(Note.class));
+            assertNull(noteCache.getIfPresent(1L));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(noteSearchIndex, times(1)).index(testNote);
+            verify(noteVectorIndex, times(1)).indexAsync(testNote);
+            assertEquals(testNote, noteCache.getIfPresent(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deleteNote_WithInvalidId_ShouldThrowException() {
+        // Arrange
+        when(noteRepository.deleteNoteById(99L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> noteService.deleteNote(99L));
+        verify(noteSearchIndex, never()).remove(any());
+        verify(noteChangeFeed, never()).record(any(), any());
+    }
+
+    @Test
+    void searchNotes_ShouldReturnNotesInRankedOrder() {
+        // Arrange
+        Note otherNote = Note.builder()
+                .id(2L)
+                .title("Other Note")
+                .content("Mentions test in passing")
+                .build();
+
+        when(noteSearchIndex.search("Test", NoteService.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(1L, 2L));
+        when(noteRepository.findAllById(List.of(1L, 2L))).thenReturn(Arrays.asList(otherNote, testNote));
+
+        // Act
+        List<Note> results = noteService.searchNotes("Test");
+
+        // Assert
+        assertEquals(List.of(testNote, otherNote), results);
+        verify(noteSearchIndex, times(1)).search("Test", NoteService.DEFAULT_SEARCH_LIMIT);
+        verify(noteRepository, times(1)).findAllById(List.of(1L, 2L));
+    }
+
+    @Test
+    void getNoteById_WhenCached_ShouldNotQueryRepositoryAgain() {
+        // Arrange
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(testNote));
+
+        // Act
+        noteService.getNoteById(1L);
+        Note second = noteService.getNoteById(1L);
+
+        // Assert
+        assertEquals(testNote, second);
         verify(noteRepository, times(1)).findById(1L);
-        verify(noteRepository, times(1)).delete(testNote);
     }
 
     @Test
-    void searchNotes_ShouldReturnMatchingNotes() {
+    void getNoteVersion_WhenNotCached_ShouldQueryTimestampsOnly() {
         // Arrange
-        List<Note> titleResults = Arrays.asList(testNote);
-        List<Note> contentResults = Arrays.asList();
-        
-        when(noteRepository.findByTitleContainingIgnoreCase("Test")).thenReturn(titleResults);
-        when(noteRepository.findByContentContainingIgnoreCase("Test")).thenReturn(contentResults);
+        NoteVersion version = NoteVersion.of(testNote);
+        when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        // Act
+        NoteVersion result = noteService.getNoteVersion(1L);
+
+        // Assert
+        assertEquals(version, result);
+        verify(noteRepository, never()).findById(any());
+    }
+
+    @Test
+    void searchNotes_AfterUpdate_ShouldNotServeStaleResults() {
+        // Arrange
+        testNote.setVersion(0L);
+        when(noteRepository.findAllById(List.of(1L))).thenReturn(List.of(testNote));
+        when(noteRepository.updateNote(eq(1L), eq("Renamed"), eq("Changed"), any(Date.class), eq(0L))).thenReturn(1);
+        when(noteSearchIndex.search("Test", NoteService.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(1L));
 
         // Act
+        noteService.searchNotes("Test");
+        noteService.searchNotes("Test");
+        noteService.updateNote(1L, Note.builder().title("Renamed").content("Changed").version(0L).build());
         List<Note> results = noteService.searchNotes("Test");
 
         // Assert
-        assertEquals(1, results.size());
-        assertEquals(testNote, results.get(0));
-        verify(noteRepository, times(1)).findByTitleContainingIgnoreCase("Test");
-        verify(noteRepository, times(1)).findByContentContainingIgnoreCase("Test");
+        assertEquals("Renamed", results.get(0).getTitle());
+        verify(noteSearchIndex, times(2)).search("Test", NoteService.DEFAULT_SEARCH_LIMIT);
+        verify(noteRepository, times(1)).findAllById(List.of(1L));
+        verify(noteRepository, never()).findById(any());
+    }
+
+    @Test
+    void searchNotes_WithNoMatches_ShouldNotQueryRepository() {
+        // Arrange
+        when(noteSearchIndex.search("missing", NoteService.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of());
+
+        // Act
+        List<Note> results = noteService.searchNotes("missing");
+
+        // Assert
+        assertTrue(results.isEmpty());
+        verify(noteRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findByTitlePrefix_ShouldLowerCaseAndEscapeWildcards() {
+        // Arrange
+        when(noteRepository.findByTitlePrefix("50\\%\\_off%", 20)).thenReturn(List.of(testNote));
+
+        // Act
+        List<Note> results = noteService.findByTitlePrefix("50%_OFF", 20);
+
+        // Assert
+        assertEquals(List.of(testNote), results);
+    }
+
+    @Test
+    void findByTitlePrefix_WithBlankPrefix_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.findByTitlePrefix(" ", 20));
+        verify(noteRepository, never()).findByTitlePrefix(any(), anyInt());
+    }
+
+    @Test
+    void semanticSearch_ShouldReturnNearestNotesInRankedOrder() {
+        // Arrange
+        Note otherNote = Note.builder().id(2L).title("Other Note").build();
+        when(noteVectorIndex.search("paraphrase", 2)).thenReturn(List.of(2L, 1L));
+        when(noteRepository.findAllById(List.of(2L, 1L))).thenReturn(Arrays.asList(testNote, otherNote));
+
+        // Act
+        List<Note> results = noteService.semanticSearch("paraphrase", 2);
+
+        // Assert
+        assertEquals(List.of(otherNote, testNote), results);
+    }
+
+    @Test
+    void getChanges_WithoutCursor_ShouldReturnCurrentCursorOnly() {
+        // Arrange
+        when(noteChangeFeed.latestId()).thenReturn(42L);
+
+        // Act
+        NoteChanges changes = noteService.getChanges(null, 10);
+
+        // Assert
+        assertTrue(changes.getChanges().isEmpty());
+        assertEquals("42", changes.getCursor());
+        verify(noteChangeFeed, never()).read(anyLong(), anyInt());
+    }
+
+    @Test
+    void getChanges_ShouldCollapseToLatestChangePerNoteAndKeepTombstones() {
+        // Arrange
+        Note otherNote = Note.builder().id(2L).title("Other Note").build();
+        when(noteChangeFeed.read(10L, 3)).thenReturn(List.of(
+                change(11L, 1L, NoteChangeType.CREATED),
+                change(12L, 2L, NoteChangeType.UPDATED),
+                change(13L, 1L, NoteChangeType.UPDATED),
+                change(14L, 3L, NoteChangeType.DELETED)));
+        when(noteRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testNote, otherNote));
+
+        // Act
+        NoteChanges changes = noteService.getChanges("10", 3);
+
+        // Assert
+        assertEquals("13", changes.getCursor());
+        assertTrue(changes.isHasMore());
+        assertEquals(2, changes.getChanges().size());
+        assertEquals(2L, changes.getChanges().get(0).getNoteId());
+        assertEquals(otherNote, changes.getChanges().get(0).getNote());
+        assertEquals(1L, changes.getChanges().get(1).getNoteId());
+        assertEquals(NoteChangeType.UPDATED, changes.getChanges().get(1).getType());
+    }
+
+    @Test
+    void getChanges_WhenNoteWasDeletedSince_ShouldReportTombstone() {
+        // Arrange
+        when(noteChangeFeed.read(0L, 10)).thenReturn(List.of(change(1L, 5L, NoteChangeType.CREATED)));
+        when(noteRepository.findAllById(List.of(5L))).thenReturn(List.of());
+
+        // Act
+        NoteChanges changes = noteService.getChanges("0", 10);
+
+        // Assert
+        assertEquals(NoteChangeType.DELETED, changes.getChanges().get(0).getType());
+        assertNull(changes.getChanges().get(0).getNote());
+        assertEquals("1", changes.getCursor());
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    void getChanges_WithInvalidCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.getChanges("abc", 10));
+    }
+
+    private static NoteChange change(Long id, Long noteId, NoteChangeType type) {
+        return NoteChange.builder().id(id).noteId(noteId).type(type).changedAt(new Date()).build();
     }
-}
\ No newline at end of file
+}
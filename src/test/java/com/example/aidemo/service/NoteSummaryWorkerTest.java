@@ -0,0 +1,107 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.model.Note;
+import com.example.aidemo.repository.NoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteSummaryWorkerTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private AIService aiService;
+
+    @Mock
+    private NoteCache noteCache;
+
+    private NoteSummaryWorker worker;
+
+    private Note note;
+
+    @BeforeEach
+    void setUp() {
+        worker = new NoteSummaryWorker(noteRepository, aiService, noteCache, true, Duration.ofMillis(100), 1);
+        note = Note.builder().id(1L).title("Title").content("Some content").version(3L).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void refresh_WithChangedContent_ShouldStoreNewSummary() {
+        // Arrange
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+        when(aiService.generateSummary("Title\n\nSome content")).thenReturn("Summary");
+        when(noteRepository.updateSummary(eq(1L), eq("Summary"), eq(NoteSummaryWorker.contentHash(note)), any(Date.class), eq(3L)))
+                .thenReturn(1);
+
+        // Act
+        worker.refresh(1L);
+
+        // Assert
+        verify(noteCache, times(1)).evict(1L);
+    }
+
+    @Test
+    void refresh_WhenNoteChangesWhileSummarizing_ShouldKeepCacheEntry() {
+        // Arrange
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+        when(aiService.generateSummary(anyString())).thenReturn("Summary of the old content");
+        when(noteRepository.updateSummary(eq(1L), anyString(), anyString(), any(Date.class), eq(3L))).thenReturn(0);
+
+        // Act
+        worker.refresh(1L);
+
+        // Assert
+        verify(noteCache, never()).evict(any());
+    }
+
+    @Test
+    void refresh_WithCurrentSummary_ShouldNotCallModel() {
+        // Arrange
+        note.setSummary("Summary");
+        note.setSummaryContentHash(NoteSummaryWorker.contentHash(note));
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+
+        // Act
+        worker.refresh(1L);
+
+        // Assert
+        verify(aiService, never()).generateSummary(anyString());
+        verify(noteRepository, never()).updateSummary(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void schedule_WithBurstOfEdits_ShouldRefreshOnce() {
+        // Arrange
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+        when(aiService.generateSummary(anyString())).thenReturn("Summary");
+
+        // Act
+        worker.schedule(note);
+        worker.schedule(note);
+        worker.schedule(note);
+
+        // Assert
+        verify(noteRepository, timeout(2000).times(1)).updateSummary(eq(1L), eq("Summary"), anyString(), any(Date.class), eq(3L));
+        verify(aiService, after(300).times(1)).generateSummary(anyString());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.aidemo.service;
+
+import com.example.aidemo.dto.NoteImportResult;
+import com.example.aidemo.model.Note;
+import com.example.aidemo.model.NoteChangeType;
+import com.example.aidemo.repository.NoteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteTransferServiceTest {
+
+    @Mock
+    private NoteService noteService;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    @Mock
+    private NoteVectorIndex noteVectorIndex;
+
+    @Mock
+    private NoteCache noteCache;
+
+    @Mock
+    private NoteChangeFeed noteChangeFeed;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<List<String>> savedChunks = new ArrayList<>();
+
+    private NoteTransferService noteTransferService;
+
+    @BeforeEach
+    void setUp() {
+        noteTransferService = new NoteTransferService(noteService, noteRepository, noteSearchIndex,
+                noteVectorIndex, noteCache, noteChangeFeed, entityManager, transactionTemplate, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void importNotes_WithNdjson_ShouldInsertInChunks() {
+        // Arrange
+        runTransactionsInline();
+        recordSavedChunks();
+        String input = "{\"title\":\"A\"}\n{\"title\":\"B\"}\n\n{\"title\":\"C\",\"content\":\"c\"}\n";
+
+        // Act
+        NoteImportResult result = noteTransferService.importNotes(stream(input), NoteFormat.NDJSON);
+
+        // Assert
+        assertEquals(3, result.getImported());
+        assertTrue(result.isCompleted());
+        assertEquals(List.of(List.of("A", "B"), List.of("C")), savedChunks);
+        verify(entityManager, times(2)).clear();
+        verify(noteSearchIndex, times(3)).index(any(Note.class));
+        verify(noteChangeFeed, times(2)).recordAll(anyList(), eq(NoteChangeType.CREATED));
+        verify(noteVectorIndex, times(3)).indexAsync(any(Note.class));
+        verify(noteVectorIndex, never()).index(any(Note.class));
+    }
+
+    @Test
+    void importNotes_WhenIndexingFailsAfterCommit_ShouldStillCountNotesAsImported() {
+        // Arrange
+        runTransactionsInline();
+        recordSavedChunks();
+        doThrow(new IllegalStateException("Index unavailable")).when(noteSearchIndex).index(any(Note.class));
+        String input = "{\"title\":\"A\"}\n{\"title\":\"B\"}\n{\"title\":\"C\"}\n";
+
+        // Act
+        NoteImportResult result = noteTransferService.importNotes(stream(input), NoteFormat.NDJSON);
+
+        // Assert
+        assertEquals(3, result.getImported());
+        assertTrue(result.isCompleted());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(List.of(List.of("A", "B"), List.of("C")), savedChunks);
+    }
+
+    @Test
+    void importNotes_WithCsv_ShouldParseQuotedFieldsAndRejectMissingTitles() {
+        // Arrange
+        runTransactionsInline();
+        recordSavedChunks();
+        String input = "title,content\r\n\"Quoted, title\",\"Line one\nLine \"\"two\"\"\"\r\n,no title\r\n";
+
+        // Act
+        NoteImportResult result = noteTransferService.importNotes(stream(input), NoteFormat.CSV);
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of(List.of("Quoted, title")), savedChunks);
+        assertEquals("Record 2: Title is required", result.getErrors().get(0));
+    }
+
+    @Test
+    void importNotes_WithMalformedJson_ShouldKeepParsedNotesAndReportError() {
+        // Arrange
+        runTransactionsInline();
+        recordSavedChunks();
+        String input = "[{\"title\":\"A\"}, {\"title\": ";
+
+        // Act
+        NoteImportResult result = noteTransferService.importNotes(stream(input), NoteFormat.JSON);
+
+        // Assert
+        assertFalse(result.isCompleted());
+        assertEquals(1, result.getImported());
+        assertTrue(result.getErrors().get(0).startsWith("Stopped after record 1"));
+    }
+
+    @Test
+    void importNotes_WithOversizedFields_ShouldRejectRecords() {
+        // Arrange
+        runTransactionsInline();
+        recordSavedChunks();
+        String input = "{\"title\":\"" + "t".repeat(Note.MAX_TITLE_LENGTH + 1) + "\"}\n"
+                + "{\"title\":\"B\",\"content\":\"" + "c".repeat(Note.MAX_CONTENT_LENGTH + 1) + "\"}\n"
+                + "{\"title\":\"C\"}\n";
+
+        // Act
+        NoteImportResult result = noteTransferService.importNotes(stream(input), NoteFormat.NDJSON);
+
+        // Assert
+        assertTrue(result.isCompleted());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(List.of("C")), savedChunks);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importNotes_WhenChunkFailsToSave_ShouldReturnResultWithCommittedRows() {
+        // Arrange
+        runTransactionsInline();
+        when(noteRepository.saveAll(any(Iterable.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("Value too long"));
+        String input = "{\"title\":\"A\"}\n{\"title\":\"B\"}\n{\"title\":\"C\"}\n{\"title\":\"D\"}\n{\"title\":\"E\"}\n";
+
+        // Act
+        NoteImportResult result = noteTransferService.importNotes(stream(input), NoteFormat.NDJSON);
+
+        // Assert
+        assertFalse(result.isCompleted());
+        assertEquals(2, result.getImported());
+        assertTrue(result.getErrors().get(0).startsWith("Stopped after record 4"));
+        verify(noteRepository, times(2)).saveAll(any(Iterable.class));
+    }
+
+    @Test
+    void exportNotes_WithCsv_ShouldWriteHeaderAndEscapedRows() throws Exception {
+        // Arrange
+        Note note = Note.builder()
+                .id(1L)
+                .title("Hello, world")
+                .content("Say \"hi\"")
+                .createdAt(new Date(0))
+                .updatedAt(new Date(0))
+                .build();
+        doAnswer(invocation -> {
+            Consumer<Note> consumer = invocation.getArgument(0);
+            consumer.accept(note);
+            return null;
+        }).when(noteService).streamNotes(any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        noteTransferService.exportNotes(output, NoteFormat.CSV);
+
+        // Assert
+        assertEquals("id,title,content,createdAt,updatedAt\r\n"
+                        + "1,\"Hello, world\",\"Say \"\"hi\"\"\",1970-01-01T00:00:00Z,1970-01-01T00:00:00Z\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordSavedChunks() {
+        when(noteRepository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            List<Note> chunk = invocation.getArgument(0);
+            savedChunks.add(chunk.stream().map(Note::getTitle).toList());
+            return chunk;
+        });
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.aidemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromptBudgetTest {
+
+    private final PromptBudget promptBudget = new PromptBudget(1000, 200, 100, 10, 100, 100);
+
+    @Test
+    void prepare_WithinBudget_ShouldRenderInputUnchanged() {
+        // Act
+        PreparedPrompt prompt = promptBudget.prepare(AIOperation.ANSWER, "What is  a note?");
+
+        // Assert
+        assertEquals(AIOperation.ANSWER.prompt("What is  a note?"), prompt.text());
+        assertEquals(0, prompt.savedTokens());
+        assertFalse(prompt.truncated());
+    }
+
+    @Test
+    void prepare_WithExtraWhitespace_ShouldCompactBeforeTruncating() {
+        // Arrange
+        String topic = "space   travel \t\t ideas\n\n\n\n   for   kids   and   teens";
+
+        // Act
+        PreparedPrompt prompt = promptBudget.prepare(AIOperation.IDEAS, topic);
+
+        // Assert
+        assertEquals(AIOperation.IDEAS.prompt("space travel ideas\n\nfor kids and teens"), prompt.text());
+        assertTrue(prompt.savedTokens() > 0);
+        assertFalse(prompt.truncated());
+    }
+
+    @Test
+    void prepare_OverBudget_ShouldCutAtWordBoundary() {
+        // Arrange
+        String topic = "alpha beta gamma delta epsilon zeta eta theta iota kappa lambda";
+
+        // Act
+        PreparedPrompt prompt = promptBudget.prepare(AIOperation.IDEAS, topic);
+
+        // Assert
+        assertEquals(AIOperation.IDEAS.prompt("alpha beta gamma delta" + PromptBudget.TRUNCATION_MARKER), prompt.text());
+        assertTrue(prompt.truncated());
+        assertEquals(7, prompt.savedTokens());
+    }
+
+    @Test
+    void constructor_WithNoRoomForInput_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new PromptBudget(500, 500, 100, 100, 100, 100));
+    }
+
+    @Test
+    void compile_WithoutPlaceholder_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("Summarize this"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.aidemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextChunkerTest {
+
+    @Test
+    void split_ShouldKeepParagraphsTogetherWithinBudget() {
+        // Arrange
+        String text = "First paragraph.\n\nSecond paragraph.\n\n" + "Third paragraph is a good deal longer than the others.";
+
+        // Act
+        List<String> chunks = TextChunker.split(text, 15);
+
+        // Assert
+        assertEquals(List.of("First paragraph.\n\nSecond paragraph.",
+                "Third paragraph is a good deal longer than the others."), chunks);
+    }
+
+    @Test
+    void split_WithOversizedSentence_ShouldSplitBetweenWordsWithinBudget() {
+        // Arrange
+        String text = "alpha beta gamma delta epsilon zeta eta theta iota kappa lambda mu";
+
+        // Act
+        List<String> chunks = TextChunker.split(text, 5);
+
+        // Assert
+        assertTrue(chunks.size() > 1);
+        assertEquals(text, String.join(" ", chunks));
+        chunks.forEach(chunk -> assertTrue(TokenEstimator.estimate(chunk) <= 5, chunk));
+    }
+}